@@ -0,0 +1,78 @@
+package dev.eerturk.booking.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.model.Status;
+import dev.eerturk.booking.web.CreateBookingRequest;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingJsonBenchmark {
+
+  @Param({"1", "100", "1000"})
+  private int pageSize;
+
+  private ObjectWriter responseWriter;
+  private ObjectWriter pageWriter;
+  private ObjectReader requestReader;
+  private BookingDetailResponse response;
+  private List<BookingDetailResponse> page;
+  private byte[] request;
+
+  @Setup
+  public void setUp() throws IOException {
+    ObjectMapper objectMapper =
+        Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    LocalDate startDate = LocalDate.now().plusDays(10);
+    response = booking(1l, startDate);
+    page =
+        LongStream.rangeClosed(1, pageSize)
+            .mapToObj(id -> booking(id, startDate.plusDays(id)))
+            .toList();
+    request =
+        objectMapper.writeValueAsBytes(
+            CreateBookingRequest.of(7l, startDate, startDate.plusDays(6), 42l));
+    responseWriter = objectMapper.writerFor(BookingDetailResponse.class);
+    pageWriter =
+        objectMapper.writerFor(
+            objectMapper
+                .getTypeFactory()
+                .constructCollectionType(List.class, BookingDetailResponse.class));
+    requestReader = objectMapper.readerFor(CreateBookingRequest.class);
+  }
+
+  @Benchmark
+  public byte[] writeBookingDetailResponse() throws IOException {
+    return responseWriter.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public byte[] writeBookingPage() throws IOException {
+    return pageWriter.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public CreateBookingRequest readCreateBookingRequest() throws IOException {
+    return requestReader.readValue(request);
+  }
+
+  private static BookingDetailResponse booking(long id, LocalDate startDate) {
+    return new BookingDetailResponse(id, 7l, startDate, startDate.plusDays(6), 42l, Status.ACTIVE);
+  }
+}
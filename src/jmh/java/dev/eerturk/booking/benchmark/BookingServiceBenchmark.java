@@ -0,0 +1,144 @@
+package dev.eerturk.booking.benchmark;
+
+import dev.eerturk.BookingApiApplication;
+import dev.eerturk.booking.ReservationAlreadyExistsException;
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.service.BookingService;
+import dev.eerturk.booking.web.CreateBookingRequest;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+  private static final long PROPERTY_ID = 1l;
+  private static final int PROPERTIES = 1000;
+  private static final int NIGHTS_PER_BOOKING = 10;
+  private static final int BOOKING_SPACING = 2 * NIGHTS_PER_BOOKING;
+  private static final long SEED_ID_OFFSET = 1_000_000_000l;
+  private static final int SEED_BATCH_SIZE = 10_000;
+
+  @Param({"1000", "100000", "1000000"})
+  private int existingRows;
+
+  @Param({"1", "30", "365"})
+  private int nights;
+
+  private ConfigurableApplicationContext context;
+  private BookingService bookingService;
+  private LocalDate createStart;
+  private LocalDate rebookStart;
+  private LocalDate blockStart;
+  private Long rebookId;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context =
+        new SpringApplicationBuilder(BookingApiApplication.class)
+            .web(WebApplicationType.NONE)
+            .logStartupInfo(false)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:benchmark-"
+                    + UUID.randomUUID()
+                    + ";DB_CLOSE_DELAY=-1",
+                "logging.level.root=WARN")
+            .run();
+    bookingService = context.getBean(BookingService.class);
+    int bookingsPerProperty = seed(context.getBean(JdbcTemplate.class));
+
+    LocalDate freeFrom =
+        LocalDate.now().plusDays((long) BOOKING_SPACING * (bookingsPerProperty + 1));
+    createStart = freeFrom;
+    rebookStart = freeFrom.plusDays(nights + 1);
+    blockStart = rebookStart.plusDays(nights + 1);
+    rebookId = bookingService.create(request(rebookStart, 2l)).id();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public void createAndCancelReservation() {
+    BookingDetailResponse created = bookingService.create(request(createStart, 3l));
+    bookingService.cancel(created.id());
+  }
+
+  @Benchmark
+  public void cancelAndRebookReservation() {
+    bookingService.cancel(rebookId);
+    bookingService.rebook(rebookId);
+  }
+
+  @Benchmark
+  public void createAndDeleteBlock() {
+    BookingDetailResponse created = bookingService.create(request(blockStart, null));
+    bookingService.delete(created.id());
+  }
+
+  @Benchmark
+  public Exception rejectConflictingBlock() {
+    try {
+      bookingService.create(request(LocalDate.now(), null));
+      throw new IllegalStateException("The block should have conflicted with a reservation");
+    } catch (ReservationAlreadyExistsException e) {
+      return e;
+    }
+  }
+
+  private CreateBookingRequest request(LocalDate startDate, Long guestId) {
+    return CreateBookingRequest.of(PROPERTY_ID, startDate, startDate.plusDays(nights - 1), guestId);
+  }
+
+  private int seed(JdbcTemplate jdbcTemplate) {
+    int bookings = Math.max(1, existingRows / NIGHTS_PER_BOOKING);
+    LocalDate today = LocalDate.now();
+    List<Object[]> bookingRows = new ArrayList<>();
+    List<Object[]> dateRows = new ArrayList<>();
+    for (int i = 0; i < bookings; i++) {
+      long id = SEED_ID_OFFSET + i;
+      long propertyId = PROPERTY_ID + i % PROPERTIES;
+      LocalDate startDate = today.plusDays((long) BOOKING_SPACING * (i / PROPERTIES));
+      LocalDate endDate = startDate.plusDays(NIGHTS_PER_BOOKING - 1);
+      bookingRows.add(
+          new Object[] {id, propertyId, Date.valueOf(startDate), Date.valueOf(endDate), 1l});
+      for (int night = 0; night < NIGHTS_PER_BOOKING; night++) {
+        Date date = Date.valueOf(startDate.plusDays(night));
+        dateRows.add(new Object[] {id * NIGHTS_PER_BOOKING + night, date, id, propertyId, date});
+      }
+      if (dateRows.size() >= SEED_BATCH_SIZE) {
+        flush(jdbcTemplate, bookingRows, dateRows);
+      }
+    }
+    flush(jdbcTemplate, bookingRows, dateRows);
+    return (bookings + PROPERTIES - 1) / PROPERTIES;
+  }
+
+  private static void flush(
+      JdbcTemplate jdbcTemplate, List<Object[]> bookingRows, List<Object[]> dateRows) {
+    jdbcTemplate.batchUpdate(
+        "insert into booking (id, property_id, start_date, end_date, guest_id, status,"
+            + " booking_type) values (?, ?, ?, ?, ?, 'ACTIVE', 'RESERVATION')",
+        bookingRows);
+    jdbcTemplate.batchUpdate(
+        "insert into booking_date (id, date, booking_id, property_id, reserved_date,"
+            + " booking_type) values (?, ?, ?, ?, ?, 'RESERVATION')",
+        dateRows);
+    bookingRows.clear();
+    dateRows.clear();
+  }
+}
@@ -0,0 +1,43 @@
+package dev.eerturk.booking.benchmark;
+
+import dev.eerturk.booking.model.Booking;
+import dev.eerturk.booking.model.BookingDate;
+import dev.eerturk.booking.model.BookingType;
+import dev.eerturk.booking.model.Status;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InitDatesBenchmark {
+
+  @Param({"1", "7", "30", "365"})
+  private int nights;
+
+  private LocalDate startDate;
+
+  @Setup
+  public void setUp() {
+    startDate = LocalDate.now().plusDays(1);
+  }
+
+  @Benchmark
+  public List<BookingDate> initDates() {
+    Booking booking =
+        new Booking()
+            .setPropertyId(1l)
+            .setGuestId(1l)
+            .setStartDate(startDate)
+            .setEndDate(startDate.plusDays(nights - 1))
+            .setStatus(Status.ACTIVE)
+            .setBookingType(BookingType.RESERVATION);
+    booking.initDates();
+    return booking.getDates();
+  }
+}
@@ -0,0 +1,18 @@
+package dev.eerturk.booking;
+
+public class BookingConflictException extends BookingRejectedException {
+  private final Long id;
+
+  public BookingConflictException(Long id) {
+    this.id = id;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  @Override
+  protected String describe() {
+    return "A booking with ID " + id + " was modified concurrently, please retry.";
+  }
+}
@@ -1,7 +1,18 @@
 package dev.eerturk.booking;
 
-public class BookingIsNotDeleteAbleException extends RuntimeException {
+public class BookingIsNotDeleteAbleException extends BookingRejectedException {
+  private final Long id;
+
   public BookingIsNotDeleteAbleException(Long id) {
-    super("A booking with ID " + id + " not delete able.");
+    this.id = id;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  @Override
+  protected String describe() {
+    return "A booking with ID " + id + " not delete able.";
   }
 }
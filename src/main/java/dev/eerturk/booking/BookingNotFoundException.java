@@ -1,7 +1,18 @@
 package dev.eerturk.booking;
 
-public class BookingNotFoundException extends RuntimeException {
+public class BookingNotFoundException extends BookingRejectedException {
+  private final Long id;
+
   public BookingNotFoundException(Long id) {
-    super("A block with ID " + id + " not found.");
+    this.id = id;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  @Override
+  protected String describe() {
+    return "A block with ID " + id + " not found.";
   }
 }
@@ -0,0 +1,19 @@
+package dev.eerturk.booking;
+
+public abstract class BookingRejectedException extends RuntimeException {
+  private String message;
+
+  protected BookingRejectedException() {
+    super(null, null, false, false);
+  }
+
+  @Override
+  public String getMessage() {
+    if (message == null) {
+      message = describe();
+    }
+    return message;
+  }
+
+  protected abstract String describe();
+}
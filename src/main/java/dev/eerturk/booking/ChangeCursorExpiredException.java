@@ -0,0 +1,18 @@
+package dev.eerturk.booking;
+
+public class ChangeCursorExpiredException extends BookingRejectedException {
+  private final Long after;
+
+  public ChangeCursorExpiredException(Long after) {
+    this.after = after;
+  }
+
+  public Long getAfter() {
+    return after;
+  }
+
+  @Override
+  protected String describe() {
+    return "The change cursor " + after + " is no longer retained; resync and resume without it.";
+  }
+}
@@ -0,0 +1,18 @@
+package dev.eerturk.booking;
+
+public class HoldNotFoundException extends BookingRejectedException {
+  private final String id;
+
+  public HoldNotFoundException(String id) {
+    this.id = id;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  protected String describe() {
+    return "A hold with ID " + id + " not found or already expired.";
+  }
+}
@@ -0,0 +1,9 @@
+package dev.eerturk.booking;
+
+import java.time.LocalDate;
+
+public class InvalidDateRangeException extends RuntimeException {
+  public InvalidDateRangeException(LocalDate from, LocalDate to) {
+    super("The date range from " + from + " to " + to + " is not valid.");
+  }
+}
@@ -0,0 +1,7 @@
+package dev.eerturk.booking;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+  public InvalidIdempotencyKeyException(String message) {
+    super(message);
+  }
+}
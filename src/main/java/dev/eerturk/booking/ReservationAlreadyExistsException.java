@@ -2,16 +2,53 @@ package dev.eerturk.booking;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
 
-public class ReservationAlreadyExistsException extends RuntimeException {
+public class ReservationAlreadyExistsException extends BookingRejectedException {
   private static final DateTimeFormatter DATE_FORMATTER =
       DateTimeFormatter.ofPattern("MMM d, yyyy");
 
+  private final Collection<Long> propertyIds;
+  private final LocalDate startDate;
+  private final LocalDate endDate;
+
   public ReservationAlreadyExistsException(
       LocalDate startDate, LocalDate endDate, Long propertyId) {
-    super(
-        String.format(
-            "A reservation with property ID %d between %s and %s is not available.",
-            propertyId, DATE_FORMATTER.format(startDate), DATE_FORMATTER.format(endDate)));
+    this.propertyIds = List.of(propertyId);
+    this.startDate = startDate;
+    this.endDate = endDate;
+  }
+
+  public ReservationAlreadyExistsException(Collection<Long> propertyIds) {
+    this.propertyIds = propertyIds;
+    this.startDate = null;
+    this.endDate = null;
+  }
+
+  public Collection<Long> getPropertyIds() {
+    return propertyIds;
+  }
+
+  public LocalDate getStartDate() {
+    return startDate;
+  }
+
+  public LocalDate getEndDate() {
+    return endDate;
+  }
+
+  @Override
+  protected String describe() {
+    if (startDate == null) {
+      return "One or more reservations with property IDs " + propertyIds + " are not available.";
+    }
+    return "A reservation with property ID "
+        + propertyIds.iterator().next()
+        + " between "
+        + DATE_FORMATTER.format(startDate)
+        + " and "
+        + DATE_FORMATTER.format(endDate)
+        + " is not available.";
   }
 }
@@ -0,0 +1,37 @@
+package dev.eerturk.booking.dao;
+
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.model.ArchivedBooking;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedBookingRepository extends CrudRepository<ArchivedBooking, Long> {
+  @Query(
+      "select new dev.eerturk.booking.dto.BookingDetailResponse(b.id, b.propertyId, b.startDate,"
+          + " b.endDate, b.guestId, b.status) from ArchivedBooking b where b.id = :id")
+  Optional<BookingDetailResponse> findDetailById(Long id);
+
+  @Modifying
+  @Query(
+      value =
+          "insert into booking_archive (id, property_id, start_date, end_date, guest_id, status,"
+              + " booking_type, archived_at) select id, property_id, start_date, end_date,"
+              + " guest_id, status, booking_type, :archivedAt from booking where id in :ids",
+      nativeQuery = true)
+  int archive(Collection<Long> ids, Instant archivedAt);
+
+  @Modifying
+  @Query(
+      value =
+          "insert into booking_date_archive (id, date, booking_id, booking_type, property_id,"
+              + " reserved_date) select id, date, booking_id, booking_type, property_id,"
+              + " reserved_date from booking_date where id in :ids",
+      nativeQuery = true)
+  int archiveDates(Collection<Long> ids);
+}
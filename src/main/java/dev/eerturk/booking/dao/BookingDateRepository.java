@@ -1,8 +1,16 @@
 package dev.eerturk.booking.dao;
 
+import dev.eerturk.booking.dto.OccupiedRange;
+import dev.eerturk.booking.dto.PropertyOccupancy;
 import dev.eerturk.booking.model.BookingDate;
 import dev.eerturk.booking.model.BookingType;
+import dev.eerturk.booking.model.Status;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,4 +20,40 @@ public interface BookingDateRepository extends CrudRepository<BookingDate, Long>
       Long propertyId, BookingType type, LocalDate startDate, LocalDate endDate);
 
   boolean existsByPropertyIdAndDateBetween(Long propertyId, LocalDate startDate, LocalDate endDate);
+
+  @Query(
+      "select new dev.eerturk.booking.dto.OccupiedRange(d.date, d.date, d.bookingType) from BookingDate d"
+          + " where d.propertyId = :propertyId and d.date >= :from")
+  List<OccupiedRange> findOccupiedRanges(Long propertyId, LocalDate from);
+
+  @Query(
+      "select new dev.eerturk.booking.dto.OccupiedRange(d.date, d.date, d.bookingType) from BookingDate d"
+          + " where d.propertyId = :propertyId and d.date between :from and :to")
+  List<OccupiedRange> findOccupiedRanges(Long propertyId, LocalDate from, LocalDate to);
+
+  @Query(
+      "select distinct d.propertyId from BookingDate d where d.date >= :from order by d.propertyId")
+  List<Long> findOccupiedPropertyIds(LocalDate from);
+
+  @Query(
+      "select new dev.eerturk.booking.dto.PropertyOccupancy(d.propertyId, d.date, d.date, d.bookingType)"
+          + " from BookingDate d where d.propertyId in :propertyIds and d.date >= :from")
+  List<PropertyOccupancy> findOccupancies(Collection<Long> propertyIds, LocalDate from);
+
+  @Modifying
+  @Query("delete from BookingDate d where d.booking.id in :bookingIds")
+  int deleteByBookingIds(Collection<Long> bookingIds);
+
+  @Modifying
+  @Query(
+      "delete from BookingDate d where d.booking.id in"
+          + " (select b.id from Booking b where b.status <> :status)")
+  int deleteByBookingStatusNot(Status status);
+
+  @Query("select d.id from BookingDate d where d.date < :before order by d.id")
+  List<Long> findIdsDatedBefore(LocalDate before, Pageable pageable);
+
+  @Modifying
+  @Query("delete from BookingDate d where d.id in :ids")
+  int deleteByIds(Collection<Long> ids);
 }
@@ -1,14 +1,124 @@
 package dev.eerturk.booking.dao;
 
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.dto.OccupiedRange;
+import dev.eerturk.booking.dto.PropertyOccupancy;
 import dev.eerturk.booking.model.Booking;
+import dev.eerturk.booking.model.BookingType;
 import dev.eerturk.booking.model.Status;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface BookingRepository extends ListCrudRepository<Booking, Long> {
+public interface BookingRepository
+    extends ListCrudRepository<Booking, Long>, BookingSearchRepository {
   Optional<Booking> findByIdAndStatus(Long id, Status status);
 
   Optional<Booking> findById(Long id);
+
+  void flush();
+
+  @Query(
+      "select new dev.eerturk.booking.dto.BookingDetailResponse(b.id, b.propertyId, b.startDate,"
+          + " b.endDate, b.guestId, b.status) from Booking b where b.id = :id")
+  Optional<BookingDetailResponse> findDetailById(Long id);
+
+  List<Booking> findAllByIdInAndStatusOrderById(Collection<Long> ids, Status status);
+
+  @Query(
+      "select b from Booking b where b.propertyId = :propertyId and b.status = :status"
+          + " and b.endDate >= :startDate and b.startDate <= :endDate order by b.id")
+  List<Booking> findAllOverlapping(
+      Long propertyId, Status status, LocalDate startDate, LocalDate endDate);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "update Booking b set b.status = :to, b.version = b.version + 1"
+          + " where b.id in :ids and b.status = :from")
+  int updateStatus(Collection<Long> ids, Status from, Status to);
+
+  @Query(
+      "select distinct b.propertyId from Booking b where b.id in :ids and exists (select o.id"
+          + " from Booking o where o.propertyId = b.propertyId and o.status = :active"
+          + " and o.endDate >= b.startDate and o.startDate <= b.endDate"
+          + " and (b.bookingType = :reservation or o.bookingType = :reservation))")
+  List<Long> findConflictingPropertyIds(
+      Collection<Long> ids, Status active, BookingType reservation);
+
+  @Query(
+      "select new dev.eerturk.booking.dto.BookingDetailResponse(b.id, b.propertyId, b.startDate,"
+          + " b.endDate, b.guestId, b.status) from Booking b where b.id > :after order by b.id")
+  List<BookingDetailResponse> findPage(long after, Pageable pageable);
+
+  @Query(
+      "select b from Booking b where b.endDate < :before and not exists (select d.id"
+          + " from BookingDate d where d.booking = b) order by b.id")
+  List<Booking> findAllEndedBefore(LocalDate before, Pageable pageable);
+
+  @Query(
+      "select b from Booking b where b.id > :after and b.status = :status and b.endDate >= :from"
+          + " and not exists (select d.id from BookingDate d where d.booking = b) order by b.id")
+  List<Booking> findAllWithoutDates(long after, Status status, LocalDate from, Pageable pageable);
+
+  @Modifying
+  @Query("delete from Booking b where b.id in :ids")
+  int deleteByIds(Collection<Long> ids);
+
+  boolean existsByPropertyIdAndStatusAndEndDateGreaterThanEqualAndStartDateLessThanEqual(
+      Long propertyId, Status status, LocalDate startDate, LocalDate endDate);
+
+  boolean
+      existsByPropertyIdAndStatusAndBookingTypeAndEndDateGreaterThanEqualAndStartDateLessThanEqual(
+          Long propertyId,
+          Status status,
+          BookingType bookingType,
+          LocalDate startDate,
+          LocalDate endDate);
+
+  @Query(
+      "select new dev.eerturk.booking.dto.OccupiedRange(b.startDate, b.endDate, b.bookingType)"
+          + " from Booking b where b.propertyId = :propertyId and b.status = :status"
+          + " and b.endDate >= :from")
+  List<OccupiedRange> findOccupiedRanges(Long propertyId, Status status, LocalDate from);
+
+  @Query(
+      "select new dev.eerturk.booking.dto.OccupiedRange(b.startDate, b.endDate, b.bookingType)"
+          + " from Booking b where b.propertyId = :propertyId and b.status = :status"
+          + " and b.endDate >= :from and b.startDate <= :to")
+  List<OccupiedRange> findOccupiedRanges(
+      Long propertyId, Status status, LocalDate from, LocalDate to);
+
+  @Query(
+      "select distinct b.propertyId from Booking b where b.status = :status and b.endDate >= :from"
+          + " order by b.propertyId")
+  List<Long> findOccupiedPropertyIds(Status status, LocalDate from);
+
+  @Query(
+      "select new dev.eerturk.booking.dto.PropertyOccupancy(b.propertyId, b.startDate, b.endDate,"
+          + " b.bookingType) from Booking b where b.propertyId in :propertyIds"
+          + " and b.status = :status and b.endDate >= :from")
+  List<PropertyOccupancy> findOccupancies(
+      Collection<Long> propertyIds, Status status, LocalDate from);
+
+  default List<Long> findConflictingPropertyIds(Collection<Long> ids) {
+    return findConflictingPropertyIds(ids, Status.ACTIVE, BookingType.RESERVATION);
+  }
+
+  default boolean existsOverlapping(Long propertyId, LocalDate startDate, LocalDate endDate) {
+    return existsByPropertyIdAndStatusAndEndDateGreaterThanEqualAndStartDateLessThanEqual(
+        propertyId, Status.ACTIVE, startDate, endDate);
+  }
+
+  default boolean existsOverlapping(
+      Long propertyId, BookingType bookingType, LocalDate startDate, LocalDate endDate) {
+    return existsByPropertyIdAndStatusAndBookingTypeAndEndDateGreaterThanEqualAndStartDateLessThanEqual(
+        propertyId, Status.ACTIVE, bookingType, startDate, endDate);
+  }
 }
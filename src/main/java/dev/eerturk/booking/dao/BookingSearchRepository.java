@@ -0,0 +1,11 @@
+package dev.eerturk.booking.dao;
+
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.dto.BookingSearchCriteria;
+import java.util.List;
+
+public interface BookingSearchRepository {
+  List<BookingDetailResponse> search(BookingSearchCriteria criteria, long after, int limit);
+
+  List<BookingDetailResponse> searchArchive(BookingSearchCriteria criteria, long after, int limit);
+}
@@ -0,0 +1,76 @@
+package dev.eerturk.booking.dao;
+
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.dto.BookingSearchCriteria;
+import dev.eerturk.booking.model.ArchivedBooking;
+import dev.eerturk.booking.model.Booking;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+class BookingSearchRepositoryImpl implements BookingSearchRepository {
+  private final EntityManager entityManager;
+
+  BookingSearchRepositoryImpl(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public List<BookingDetailResponse> search(BookingSearchCriteria criteria, long after, int limit) {
+    return search(Booking.class, criteria, after, limit);
+  }
+
+  @Override
+  public List<BookingDetailResponse> searchArchive(
+      BookingSearchCriteria criteria, long after, int limit) {
+    return search(ArchivedBooking.class, criteria, after, limit);
+  }
+
+  private List<BookingDetailResponse> search(
+      Class<?> entity, BookingSearchCriteria criteria, long after, int limit) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<BookingDetailResponse> query = builder.createQuery(BookingDetailResponse.class);
+    Root<?> booking = query.from(entity);
+
+    List<Predicate> predicates = new ArrayList<>();
+    predicates.add(builder.greaterThan(booking.get("id"), after));
+    if (criteria.propertyId() != null) {
+      predicates.add(builder.equal(booking.get("propertyId"), criteria.propertyId()));
+    }
+    if (criteria.guestId() != null) {
+      predicates.add(builder.equal(booking.get("guestId"), criteria.guestId()));
+    }
+    if (criteria.status() != null) {
+      predicates.add(builder.equal(booking.get("status"), criteria.status()));
+    }
+    if (criteria.bookingType() != null) {
+      predicates.add(builder.equal(booking.get("bookingType"), criteria.bookingType()));
+    }
+    if (criteria.from() != null) {
+      predicates.add(
+          builder.greaterThanOrEqualTo(booking.<LocalDate>get("endDate"), criteria.from()));
+    }
+    if (criteria.to() != null) {
+      predicates.add(builder.lessThanOrEqualTo(booking.<LocalDate>get("startDate"), criteria.to()));
+    }
+
+    query
+        .select(
+            builder.construct(
+                BookingDetailResponse.class,
+                booking.get("id"),
+                booking.get("propertyId"),
+                booking.get("startDate"),
+                booking.get("endDate"),
+                booking.get("guestId"),
+                booking.get("status")))
+        .where(predicates.toArray(Predicate[]::new))
+        .orderBy(builder.asc(booking.get("id")));
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+}
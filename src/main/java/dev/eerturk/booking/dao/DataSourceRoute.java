@@ -0,0 +1,44 @@
+package dev.eerturk.booking.dao;
+
+import java.util.function.Supplier;
+
+public final class DataSourceRoute {
+  private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+  private DataSourceRoute() {}
+
+  public static boolean isPrimaryForced() {
+    return Boolean.TRUE.equals(PRIMARY.get());
+  }
+
+  public static void forcePrimary() {
+    PRIMARY.set(Boolean.TRUE);
+  }
+
+  public static void reset() {
+    PRIMARY.remove();
+  }
+
+  public static <T> T onPrimary(Supplier<T> supplier) {
+    Boolean previous = PRIMARY.get();
+    PRIMARY.set(Boolean.TRUE);
+    try {
+      return supplier.get();
+    } finally {
+      PRIMARY.set(previous);
+    }
+  }
+
+  public static Runnable decorate(Runnable runnable) {
+    boolean primary = isPrimaryForced();
+    return () -> {
+      Boolean previous = PRIMARY.get();
+      PRIMARY.set(primary);
+      try {
+        runnable.run();
+      } finally {
+        PRIMARY.set(previous);
+      }
+    };
+  }
+}
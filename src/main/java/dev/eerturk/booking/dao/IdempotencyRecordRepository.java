@@ -0,0 +1,17 @@
+package dev.eerturk.booking.dao;
+
+import dev.eerturk.booking.model.IdempotencyRecord;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface IdempotencyRecordRepository extends CrudRepository<IdempotencyRecord, String> {
+  @Transactional
+  @Modifying
+  @Query("delete from IdempotencyRecord r where r.createdAt < :before")
+  int deleteCreatedBefore(Instant before);
+}
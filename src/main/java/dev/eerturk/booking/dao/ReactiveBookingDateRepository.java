@@ -0,0 +1,27 @@
+package dev.eerturk.booking.dao;
+
+import dev.eerturk.booking.model.BookingDateRecord;
+import dev.eerturk.booking.model.BookingType;
+import java.time.LocalDate;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveBookingDateRepository
+    extends ReactiveCrudRepository<BookingDateRecord, Long> {
+  Mono<Boolean> existsByPropertyIdAndBookingTypeAndDateBetween(
+      Long propertyId, BookingType type, LocalDate startDate, LocalDate endDate);
+
+  Mono<Boolean> existsByPropertyIdAndDateBetween(
+      Long propertyId, LocalDate startDate, LocalDate endDate);
+
+  @Modifying
+  @Query("delete from booking_date where booking_id = :bookingId")
+  Mono<Integer> deleteByBookingId(Long bookingId);
+
+  @Query("select next value for booking_date_seq")
+  Mono<Long> nextIdBlock();
+}
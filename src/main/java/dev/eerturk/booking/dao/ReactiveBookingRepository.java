@@ -0,0 +1,20 @@
+package dev.eerturk.booking.dao;
+
+import dev.eerturk.booking.model.BookingRecord;
+import dev.eerturk.booking.model.Status;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveBookingRepository extends ReactiveCrudRepository<BookingRecord, Long> {
+  Mono<BookingRecord> findByIdAndStatus(Long id, Status status);
+
+  @Query("select * from booking where id > :after order by id")
+  Flux<BookingRecord> findAllAfter(long after);
+
+  @Query("select next value for booking_seq")
+  Mono<Long> nextId();
+}
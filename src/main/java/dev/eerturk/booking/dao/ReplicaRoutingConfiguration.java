@@ -0,0 +1,70 @@
+package dev.eerturk.booking.dao;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnExpression("${booking.replicas.enabled:false} and !${booking.shards.enabled:false}")
+public class ReplicaRoutingConfiguration {
+
+  @Bean
+  public ReplicaRoutingDataSource replicaRoutingDataSource(
+      DataSourceProperties dataSourceProperties,
+      ReplicaRoutingProperties properties,
+      MeterRegistry meterRegistry) {
+    MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+    HikariDataSource primary =
+        dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    primary.setPoolName("primary");
+    primary.setMetricsTrackerFactory(metrics);
+    List<DataSource> replicas =
+        IntStream.range(0, properties.instances().size())
+            .mapToObj(index -> replica(index, properties, metrics))
+            .toList();
+    return new ReplicaRoutingDataSource(primary, replicas, properties, meterRegistry);
+  }
+
+  private static DataSource replica(
+      int index, ReplicaRoutingProperties properties, MicrometerMetricsTrackerFactory metrics) {
+    ReplicaRoutingProperties.Replica replica = properties.instances().get(index);
+    HikariDataSource dataSource =
+        DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(replica.url())
+            .username(replica.username())
+            .password(replica.password())
+            .build();
+    dataSource.setPoolName("replica-" + index);
+    dataSource.setMaximumPoolSize(properties.maximumPoolSize());
+    dataSource.setConnectionTimeout(properties.connectionTimeout().toMillis());
+    dataSource.setReadOnly(true);
+    dataSource.setInitializationFailTimeout(-1);
+    dataSource.setMetricsTrackerFactory(metrics);
+    return dataSource;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+  }
+
+  @Bean
+  public TaskDecorator dataSourceRouteTaskDecorator() {
+    return DataSourceRoute::decorate;
+  }
+}
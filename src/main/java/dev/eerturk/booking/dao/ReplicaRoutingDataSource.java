@@ -0,0 +1,133 @@
+package dev.eerturk.booking.dao;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+  private final DataSource primary;
+  private final Counter primaryConnections;
+  private final List<Route> replicas = new ArrayList<>();
+  private final AtomicInteger next = new AtomicInteger();
+  private final ReplicaRoutingProperties properties;
+
+  public ReplicaRoutingDataSource(
+      DataSource primary,
+      List<DataSource> replicas,
+      ReplicaRoutingProperties properties,
+      MeterRegistry registry) {
+    this.primary = primary;
+    this.properties = properties;
+    this.primaryConnections = connections(registry, "primary");
+    for (int index = 0; index < replicas.size(); index++) {
+      Route route = new Route("replica-" + index, replicas.get(index), registry);
+      Gauge.builder("booking.datasource.replica.available", route, r -> r.available() ? 1 : 0)
+          .description("Whether the replica currently receives read-only transactions")
+          .tag("route", route.name)
+          .register(registry);
+      this.replicas.add(route);
+    }
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        && !DataSourceRoute.isPrimaryForced()) {
+      int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+      for (int offset = 0; offset < replicas.size(); offset++) {
+        Route route = replicas.get((start + offset) % replicas.size());
+        if (route.available()) {
+          try {
+            Connection connection = route.dataSource.getConnection();
+            route.connections.increment();
+            return connection;
+          } catch (SQLException e) {
+            route.markDown(properties.failureBackoff());
+            LOGGER.warn("Replica {} is not reachable, reading from primary", route.name, e);
+          }
+        }
+      }
+    }
+    Connection connection = primary.getConnection();
+    primaryConnections.increment();
+    return connection;
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return primary.getConnection(username, password);
+  }
+
+  @Scheduled(fixedDelayString = "${booking.replicas.health-check-interval:PT5S}")
+  public void checkReplicas() {
+    for (Route route : replicas) {
+      try (Connection connection = route.dataSource.getConnection()) {
+        if (properties.lagQuery() == null) {
+          route.markUp();
+          continue;
+        }
+        try (Statement statement = connection.createStatement();
+            ResultSet lag = statement.executeQuery(properties.lagQuery())) {
+          double lagSeconds = lag.next() ? lag.getDouble(1) : 0;
+          if (lagSeconds * 1000 > properties.maximumLag().toMillis()) {
+            LOGGER.warn("Replica {} lags {}s behind primary", route.name, lagSeconds);
+            route.markDown(properties.failureBackoff());
+          } else {
+            route.markUp();
+          }
+        }
+      } catch (SQLException e) {
+        LOGGER.warn("Replica {} failed its health check", route.name, e);
+        route.markDown(properties.failureBackoff());
+      }
+    }
+  }
+
+  private static Counter connections(MeterRegistry registry, String route) {
+    return Counter.builder("booking.datasource.connections")
+        .description("Connections handed out per datasource route")
+        .tag("route", route)
+        .register(registry);
+  }
+
+  private static final class Route {
+    private final String name;
+    private final DataSource dataSource;
+    private final Counter connections;
+    private volatile long downUntil;
+
+    Route(String name, DataSource dataSource, MeterRegistry registry) {
+      this.name = name;
+      this.dataSource = dataSource;
+      this.connections = connections(registry, name);
+    }
+
+    boolean available() {
+      return System.nanoTime() - downUntil >= 0;
+    }
+
+    void markDown(Duration backoff) {
+      downUntil = System.nanoTime() + backoff.toNanos();
+    }
+
+    void markUp() {
+      downUntil = System.nanoTime();
+    }
+  }
+}
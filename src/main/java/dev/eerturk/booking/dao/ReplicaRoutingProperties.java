@@ -0,0 +1,20 @@
+package dev.eerturk.booking.dao;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.replicas")
+public record ReplicaRoutingProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue List<Replica> instances,
+    @DefaultValue("10") int maximumPoolSize,
+    @DefaultValue("1s") Duration connectionTimeout,
+    @DefaultValue("5s") Duration readYourWrites,
+    @DefaultValue("30s") Duration failureBackoff,
+    @DefaultValue("5s") Duration maximumLag,
+    String lagQuery) {
+
+  public record Replica(String url, String username, String password) {}
+}
@@ -0,0 +1,33 @@
+package dev.eerturk.booking.dao;
+
+import java.util.function.Supplier;
+
+public final class ShardContext {
+  public static final int SLOTS = 256;
+
+  private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+  private ShardContext() {}
+
+  public static Integer current() {
+    return SHARD.get();
+  }
+
+  public static <T> T on(int shard, Supplier<T> supplier) {
+    Integer previous = SHARD.get();
+    SHARD.set(shard);
+    try {
+      return supplier.get();
+    } finally {
+      SHARD.set(previous);
+    }
+  }
+
+  public static int shardOf(long id) {
+    return Math.floorMod(id, SLOTS);
+  }
+
+  public static long encode(long value, int shard) {
+    return value * SLOTS + shard;
+  }
+}
@@ -0,0 +1,8 @@
+package dev.eerturk.booking.dao;
+
+import dev.eerturk.booking.model.ShardLayout;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ShardLayoutRepository extends CrudRepository<ShardLayout, Integer> {}
@@ -0,0 +1,34 @@
+package dev.eerturk.booking.dao;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+  private final List<DataSource> shards;
+
+  public ShardRoutingDataSource(List<DataSource> shards) {
+    this.shards = List.copyOf(shards);
+    Map<Object, Object> targets =
+        IntStream.range(0, shards.size())
+            .boxed()
+            .collect(Collectors.toMap(Function.identity(), shards::get));
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(shards.get(0));
+    setLenientFallback(false);
+  }
+
+  public List<DataSource> shards() {
+    return shards;
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    Integer shard = ShardContext.current();
+    return shard != null ? shard : 0;
+  }
+}
@@ -0,0 +1,42 @@
+package dev.eerturk.booking.dao;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+public class ShardedSequenceGenerator extends SequenceStyleGenerator {
+  private final Map<Integer, Block> blocks = new HashMap<>();
+
+  @Override
+  public Object generate(SharedSessionContractImplementor session, Object object)
+      throws HibernateException {
+    Integer shard = ShardContext.current();
+    if (shard == null) {
+      return super.generate(session, object);
+    }
+    return ShardContext.encode(next(session, shard), shard);
+  }
+
+  private synchronized long next(SharedSessionContractImplementor session, int shard) {
+    Block block = blocks.get(shard);
+    if (block == null || block.next > block.last) {
+      long start =
+          getDatabaseStructure().buildCallback(session).getNextValue().makeValue().longValue();
+      block = new Block(start, start + getDatabaseStructure().getIncrementSize() - 1);
+      blocks.put(shard, block);
+    }
+    return block.next++;
+  }
+
+  private static final class Block {
+    private long next;
+    private final long last;
+
+    private Block(long next, long last) {
+      this.next = next;
+      this.last = last;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package dev.eerturk.booking.dao;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "booking.shards.enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+  @Bean
+  public ShardRoutingDataSource shardRoutingDataSource(
+      DataSourceProperties dataSourceProperties,
+      ShardingProperties properties,
+      MeterRegistry meterRegistry) {
+    MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+    HikariDataSource primary =
+        dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    primary.setPoolName("shard-0");
+    primary.setMetricsTrackerFactory(metrics);
+    List<DataSource> shards = new ArrayList<>(List.of(primary));
+    for (ShardingProperties.Shard shard : properties.instances()) {
+      HikariDataSource dataSource =
+          DataSourceBuilder.create()
+              .type(HikariDataSource.class)
+              .url(shard.url())
+              .username(shard.username())
+              .password(shard.password())
+              .build();
+      dataSource.setPoolName("shard-" + shards.size());
+      dataSource.setMetricsTrackerFactory(metrics);
+      shards.add(dataSource);
+    }
+    return new ShardRoutingDataSource(shards);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+  }
+
+  @Bean
+  public FlywayMigrationStrategy shardMigrationStrategy(
+      ShardRoutingDataSource shardRoutingDataSource) {
+    return flyway -> {
+      for (DataSource shard : shardRoutingDataSource.shards()) {
+        Flyway.configure()
+            .configuration(flyway.getConfiguration())
+            .dataSource(shard)
+            .load()
+            .migrate();
+      }
+    };
+  }
+}
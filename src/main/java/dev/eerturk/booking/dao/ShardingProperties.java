@@ -0,0 +1,20 @@
+package dev.eerturk.booking.dao;
+
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.shards")
+public record ShardingProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue List<Shard> instances,
+    @DefaultValue("128") int virtualNodes,
+    @DefaultValue Map<Long, Integer> pinned) {
+
+  public int count() {
+    return enabled ? instances.size() + 1 : 1;
+  }
+
+  public record Shard(String url, String username, String password) {}
+}
@@ -0,0 +1,8 @@
+package dev.eerturk.booking.dao;
+
+import dev.eerturk.booking.model.StorageMode;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StorageModeRepository extends CrudRepository<StorageMode, Integer> {}
@@ -0,0 +1,7 @@
+package dev.eerturk.booking.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record AvailabilityCalendarResponse(
+    Long propertyId, LocalDate from, LocalDate to, List<AvailabilityRun> runs) {}
@@ -0,0 +1,6 @@
+package dev.eerturk.booking.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record AvailabilitySearchResponse(LocalDate from, LocalDate to, List<Long> propertyIds) {}
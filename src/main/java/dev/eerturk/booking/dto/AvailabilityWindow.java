@@ -0,0 +1,5 @@
+package dev.eerturk.booking.dto;
+
+import java.time.LocalDate;
+
+public record AvailabilityWindow(LocalDate startDate, LocalDate endDate, int nights) {}
@@ -0,0 +1,13 @@
+package dev.eerturk.booking.dto;
+
+public record BatchItemResult(
+    int index, BatchItemStatus status, BookingDetailResponse booking, String error) {
+
+  public static BatchItemResult created(int index, BookingDetailResponse booking) {
+    return new BatchItemResult(index, BatchItemStatus.CREATED, booking, null);
+  }
+
+  public static BatchItemResult rejected(int index, String error) {
+    return new BatchItemResult(index, BatchItemStatus.REJECTED, null, error);
+  }
+}
@@ -0,0 +1,6 @@
+package dev.eerturk.booking.dto;
+
+public enum BatchItemStatus {
+  CREATED,
+  REJECTED
+}
@@ -0,0 +1,30 @@
+package dev.eerturk.booking.dto;
+
+import dev.eerturk.booking.event.BookingChangedEvent;
+import dev.eerturk.booking.event.ChangeType;
+import dev.eerturk.booking.model.BookingType;
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record BookingChange(
+    long sequence,
+    ChangeType type,
+    Long bookingId,
+    Long propertyId,
+    LocalDate startDate,
+    LocalDate endDate,
+    BookingType bookingType,
+    Instant occurredAt) {
+
+  public static BookingChange of(long sequence, BookingChangedEvent event, Instant occurredAt) {
+    return new BookingChange(
+        sequence,
+        event.type(),
+        event.bookingId(),
+        event.propertyId(),
+        event.startDate(),
+        event.endDate(),
+        event.bookingType(),
+        occurredAt);
+  }
+}
@@ -0,0 +1,18 @@
+package dev.eerturk.booking.dto;
+
+import dev.eerturk.booking.web.CreateBookingRequest;
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record BookingHold(
+    String id,
+    Long propertyId,
+    LocalDate startDate,
+    LocalDate endDate,
+    Long guestId,
+    Instant expiresAt) {
+
+  public CreateBookingRequest toRequest() {
+    return CreateBookingRequest.of(propertyId, startDate, endDate, guestId);
+  }
+}
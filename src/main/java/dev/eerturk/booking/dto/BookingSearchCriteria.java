@@ -0,0 +1,14 @@
+package dev.eerturk.booking.dto;
+
+import dev.eerturk.booking.model.BookingType;
+import dev.eerturk.booking.model.Status;
+import java.time.LocalDate;
+import org.springframework.format.annotation.DateTimeFormat;
+
+public record BookingSearchCriteria(
+    Long propertyId,
+    Long guestId,
+    Status status,
+    BookingType bookingType,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {}
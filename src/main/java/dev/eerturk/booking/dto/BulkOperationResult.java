@@ -0,0 +1,14 @@
+package dev.eerturk.booking.dto;
+
+import java.util.List;
+
+public record BulkOperationResult(int affected, List<Long> ids, List<BulkRejection> rejected) {
+
+  public static BulkOperationResult of(List<Long> ids) {
+    return of(ids, List.of());
+  }
+
+  public static BulkOperationResult of(List<Long> ids, List<BulkRejection> rejected) {
+    return new BulkOperationResult(ids.size(), ids, rejected);
+  }
+}
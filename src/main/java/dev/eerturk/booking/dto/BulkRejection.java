@@ -0,0 +1,5 @@
+package dev.eerturk.booking.dto;
+
+import java.util.List;
+
+public record BulkRejection(List<Long> ids, String error) {}
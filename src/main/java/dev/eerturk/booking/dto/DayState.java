@@ -0,0 +1,7 @@
+package dev.eerturk.booking.dto;
+
+public enum DayState {
+  FREE,
+  BLOCKED,
+  RESERVED
+}
@@ -0,0 +1,6 @@
+package dev.eerturk.booking.dto;
+
+import dev.eerturk.booking.model.BookingType;
+import java.time.LocalDate;
+
+public record OccupiedRange(LocalDate startDate, LocalDate endDate, BookingType bookingType) {}
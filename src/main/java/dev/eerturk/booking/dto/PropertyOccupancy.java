@@ -0,0 +1,7 @@
+package dev.eerturk.booking.dto;
+
+import dev.eerturk.booking.model.BookingType;
+import java.time.LocalDate;
+
+public record PropertyOccupancy(
+    Long propertyId, LocalDate startDate, LocalDate endDate, BookingType bookingType) {}
@@ -0,0 +1,43 @@
+package dev.eerturk.booking.event;
+
+import dev.eerturk.booking.model.Booking;
+import dev.eerturk.booking.model.BookingRecord;
+import dev.eerturk.booking.model.BookingType;
+import java.time.LocalDate;
+
+public record BookingChangedEvent(
+    ChangeType type,
+    Long bookingId,
+    Long propertyId,
+    LocalDate startDate,
+    LocalDate endDate,
+    BookingType bookingType) {
+
+  public static BookingChangedEvent of(ChangeType type, Booking booking) {
+    return new BookingChangedEvent(
+        type,
+        booking.getId(),
+        booking.getPropertyId(),
+        booking.getStartDate(),
+        booking.getEndDate(),
+        booking.getBookingType());
+  }
+
+  public static BookingChangedEvent of(ChangeType type, BookingRecord booking) {
+    return new BookingChangedEvent(
+        type,
+        booking.getId(),
+        booking.getPropertyId(),
+        booking.getStartDate(),
+        booking.getEndDate(),
+        booking.getBookingType());
+  }
+
+  public boolean occupies() {
+    return type == ChangeType.CREATED || type == ChangeType.REBOOKED;
+  }
+
+  public boolean isBlock() {
+    return bookingType == BookingType.BLOCK;
+  }
+}
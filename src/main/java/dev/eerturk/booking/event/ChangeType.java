@@ -0,0 +1,9 @@
+package dev.eerturk.booking.event;
+
+public enum ChangeType {
+  CREATED,
+  CANCELLED,
+  REBOOKED,
+  DELETED,
+  ARCHIVED
+}
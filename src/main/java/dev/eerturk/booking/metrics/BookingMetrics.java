@@ -0,0 +1,66 @@
+package dev.eerturk.booking.metrics;
+
+import dev.eerturk.booking.event.BookingChangedEvent;
+import dev.eerturk.booking.model.BookingType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.reflect.Method;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.method.HandlerMethod;
+
+@Component
+public class BookingMetrics {
+  private final MeterRegistry meterRegistry;
+  private final ConcurrentMap<ErrorKey, Counter> errors = new ConcurrentHashMap<>();
+  private final ConcurrentMap<BookingType, DistributionSummary> nights = new ConcurrentHashMap<>();
+
+  public BookingMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookingChanged(BookingChangedEvent event) {
+    if (!event.occupies()) {
+      return;
+    }
+    nights
+        .computeIfAbsent(
+            event.bookingType(),
+            type ->
+                DistributionSummary.builder("booking.nights")
+                    .description("Nights occupied by created and rebooked bookings")
+                    .baseUnit("nights")
+                    .tag("type", String.valueOf(type))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry))
+        .record(ChronoUnit.DAYS.between(event.startDate(), event.endDate()) + 1);
+  }
+
+  public void recordError(Exception exception, HandlerMethod handlerMethod) {
+    errors
+        .computeIfAbsent(
+            new ErrorKey(
+                exception.getClass(), handlerMethod != null ? handlerMethod.getMethod() : null),
+            key ->
+                Counter.builder("booking.errors")
+                    .description("Booking requests rejected with a domain error")
+                    .tag("exception", exception.getClass().getSimpleName())
+                    .tag("endpoint", endpoint(handlerMethod))
+                    .register(meterRegistry))
+        .increment();
+  }
+
+  private static String endpoint(HandlerMethod handlerMethod) {
+    if (handlerMethod == null) {
+      return "unknown";
+    }
+    return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+  }
+
+  private record ErrorKey(Class<?> exception, Method method) {}
+}
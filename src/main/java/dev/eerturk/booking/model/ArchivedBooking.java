@@ -0,0 +1,36 @@
+package dev.eerturk.booking.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import lombok.*;
+
+@Entity
+@Table(name = "booking_archive")
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchivedBooking {
+
+  @Id private Long id;
+
+  @Column private Long propertyId;
+
+  @Column private LocalDate startDate;
+
+  @Column private LocalDate endDate;
+
+  @Column private Long guestId;
+
+  @Column
+  @Enumerated(EnumType.STRING)
+  private Status status;
+
+  @Column
+  @Enumerated(EnumType.STRING)
+  private BookingType bookingType;
+
+  @Column private Instant archivedAt;
+}
@@ -1,5 +1,6 @@
 package dev.eerturk.booking.model;
 
+import dev.eerturk.booking.dao.ShardedSequenceGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -9,6 +10,8 @@ import java.util.List;
 import java.util.stream.Collectors;
 import lombok.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 @Entity
 @Table(name = "booking")
@@ -20,7 +23,16 @@ import lombok.experimental.Accessors;
 @NoArgsConstructor
 public class Booking {
 
-  @Id @GeneratedValue private Long id;
+  @Id
+  @GeneratedValue(generator = "booking_seq")
+  @GenericGenerator(
+      name = "booking_seq",
+      type = ShardedSequenceGenerator.class,
+      parameters = {
+        @Parameter(name = "sequence_name", value = "booking_seq"),
+        @Parameter(name = "increment_size", value = "50")
+      })
+  private Long id;
 
   @Column
   @NotNull(message = "The property id must be defined.")
@@ -44,30 +56,38 @@ public class Booking {
   private List<BookingDate> dates = new ArrayList<>();
 
   @Column
+  @Enumerated(EnumType.STRING)
   @NotNull(message = "The booking status must be defined.")
   private Status status;
 
-  @Column private BookingType bookingType;
+  @Column
+  @Enumerated(EnumType.STRING)
+  private BookingType bookingType;
+
+  @Version private Long version;
 
   public boolean isBlock() {
     return bookingType == BookingType.BLOCK;
   }
 
   public void initDates() {
-    List<BookingDate> bookingDates =
-        getStartDate()
-            .datesUntil(getEndDate().plusDays(1))
-            .map(
-                date -> {
-                  BookingDate bookingDate = new BookingDate();
-                  bookingDate.setDate(date);
-                  bookingDate.setBooking(this);
-                  bookingDate.setBookingType(getBookingType());
-                  bookingDate.setPropertyId(getPropertyId());
-                  return bookingDate;
-                })
-            .collect(Collectors.toList());
-    this.dates.addAll(bookingDates);
+    this.dates.addAll(newDates());
+  }
+
+  public List<BookingDate> newDates() {
+    return getStartDate()
+        .datesUntil(getEndDate().plusDays(1))
+        .map(
+            date -> {
+              BookingDate bookingDate = new BookingDate();
+              bookingDate.setDate(date);
+              bookingDate.setBooking(this);
+              bookingDate.setBookingType(getBookingType());
+              bookingDate.setPropertyId(getPropertyId());
+              bookingDate.setReservedDate(isBlock() ? null : date);
+              return bookingDate;
+            })
+        .collect(Collectors.toList());
   }
 
   public void deleteDates() {
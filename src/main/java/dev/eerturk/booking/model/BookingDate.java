@@ -1,13 +1,21 @@
 package dev.eerturk.booking.model;
 
+import dev.eerturk.booking.dao.ShardedSequenceGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.time.LocalDate;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 @Entity
-@Table(name = "booking_date")
+@Table(
+    name = "booking_date",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "booking_date_propertyId_reservedDate",
+            columnNames = {"propertyId", "reservedDate"}))
 @ToString(exclude = "booking")
 @Getter
 @Setter
@@ -15,7 +23,16 @@ import lombok.*;
 @NoArgsConstructor
 public class BookingDate {
 
-  @Id @GeneratedValue private Long id;
+  @Id
+  @GeneratedValue(generator = "booking_date_seq")
+  @GenericGenerator(
+      name = "booking_date_seq",
+      type = ShardedSequenceGenerator.class,
+      parameters = {
+        @Parameter(name = "sequence_name", value = "booking_date_seq"),
+        @Parameter(name = "increment_size", value = "50")
+      })
+  private Long id;
 
   @Column
   @NotNull(message = "The booking date must be defined.")
@@ -30,5 +47,9 @@ public class BookingDate {
   @JoinColumn(name = "booking_id", nullable = false)
   private Booking booking;
 
-  @Column private BookingType bookingType;
+  @Column
+  @Enumerated(EnumType.STRING)
+  private BookingType bookingType;
+
+  @Column private LocalDate reservedDate;
 }
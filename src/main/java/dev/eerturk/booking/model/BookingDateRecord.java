@@ -0,0 +1,27 @@
+package dev.eerturk.booking.model;
+
+import java.time.LocalDate;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("booking_date")
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDateRecord {
+
+  @Id private Long id;
+
+  private LocalDate date;
+
+  private Long propertyId;
+
+  private Long bookingId;
+
+  private BookingType bookingType;
+
+  private LocalDate reservedDate;
+}
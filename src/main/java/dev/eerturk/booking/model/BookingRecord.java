@@ -0,0 +1,38 @@
+package dev.eerturk.booking.model;
+
+import java.time.LocalDate;
+import lombok.*;
+import lombok.experimental.Accessors;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("booking")
+@Getter
+@Setter
+@ToString
+@Accessors(chain = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingRecord {
+
+  @Id private Long id;
+
+  private Long propertyId;
+
+  private LocalDate startDate;
+
+  private LocalDate endDate;
+
+  private Long guestId;
+
+  private Status status;
+
+  private BookingType bookingType;
+
+  @Version private Long version;
+
+  public boolean isBlock() {
+    return bookingType == BookingType.BLOCK;
+  }
+}
@@ -0,0 +1,55 @@
+package dev.eerturk.booking.model;
+
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import lombok.*;
+import lombok.experimental.Accessors;
+
+@Entity
+@Table(name = "idempotency_key")
+@Getter
+@Setter
+@ToString
+@Accessors(chain = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+  @Id
+  @Column(name = "idempotency_key")
+  private String key;
+
+  @Column private Long bookingId;
+
+  @Column private Long propertyId;
+
+  @Column private LocalDate startDate;
+
+  @Column private LocalDate endDate;
+
+  @Column private Long guestId;
+
+  @Column
+  @Enumerated(EnumType.STRING)
+  private Status status;
+
+  @Column private Instant createdAt;
+
+  public static IdempotencyRecord of(String key, BookingDetailResponse response, Instant now) {
+    return new IdempotencyRecord(
+        key,
+        response.id(),
+        response.propertyId(),
+        response.startDate(),
+        response.endDate(),
+        response.guestId(),
+        response.status(),
+        now);
+  }
+
+  public BookingDetailResponse toResponse() {
+    return new BookingDetailResponse(bookingId, propertyId, startDate, endDate, guestId, status);
+  }
+}
@@ -0,0 +1,24 @@
+package dev.eerturk.booking.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.*;
+import lombok.experimental.Accessors;
+
+@Entity
+@Table(name = "shard_layout")
+@Getter
+@Setter
+@ToString
+@Accessors(chain = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShardLayout {
+  public static final int CURRENT = 1;
+
+  @Id private Integer id;
+
+  @Column private String layout;
+
+  @Column private Instant recordedAt;
+}
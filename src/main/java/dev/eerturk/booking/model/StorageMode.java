@@ -0,0 +1,30 @@
+package dev.eerturk.booking.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.*;
+import lombok.experimental.Accessors;
+
+@Entity
+@Table(name = "storage_mode")
+@Getter
+@Setter
+@ToString
+@Accessors(chain = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class StorageMode {
+  public static final int CURRENT = 1;
+  public static final String DAILY = "daily";
+  public static final String INTERVAL = "interval";
+
+  @Id private Integer id;
+
+  @Column private String mode;
+
+  @Column private Instant recordedAt;
+
+  public static StorageMode of(String mode) {
+    return new StorageMode(CURRENT, mode, Instant.now());
+  }
+}
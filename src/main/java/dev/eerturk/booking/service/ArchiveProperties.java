@@ -0,0 +1,12 @@
+package dev.eerturk.booking.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.archive")
+public record ArchiveProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("30d") Duration retention,
+    @DefaultValue("500") int batchSize,
+    @DefaultValue("PT1H") Duration interval) {}
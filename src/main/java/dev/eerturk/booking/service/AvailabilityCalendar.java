@@ -0,0 +1,129 @@
+package dev.eerturk.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.eerturk.booking.InvalidDateRangeException;
+import dev.eerturk.booking.dto.AvailabilityCalendarResponse;
+import dev.eerturk.booking.dto.AvailabilityRun;
+import dev.eerturk.booking.dto.DayState;
+import dev.eerturk.booking.dto.OccupiedRange;
+import dev.eerturk.booking.event.BookingChangedEvent;
+import dev.eerturk.booking.model.BookingType;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class AvailabilityCalendar {
+  private static final DayState[] STATES = DayState.values();
+
+  private final OccupancyStore occupancyStore;
+  private final ShardRouter shardRouter;
+  private final AvailabilityCalendarProperties properties;
+  private final Cache<Long, PropertyCalendar> cache;
+
+  public AvailabilityCalendar(
+      OccupancyStore occupancyStore,
+      ShardRouter shardRouter,
+      AvailabilityCalendarProperties properties) {
+    this.occupancyStore = occupancyStore;
+    this.shardRouter = shardRouter;
+    this.properties = properties;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(properties.maximumSize())
+            .expireAfterWrite(properties.expireAfterWrite())
+            .build();
+  }
+
+  public AvailabilityCalendarResponse calendar(Long propertyId, LocalDate from, LocalDate to) {
+    if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= properties.maximumDays()) {
+      throw new InvalidDateRangeException(from, to);
+    }
+    PropertyCalendar calendar = cache.get(propertyId, this::load);
+    if (!calendar.covers(from, to)) {
+      calendar = PropertyCalendar.of(from, to, findOccupiedRanges(propertyId, from, to));
+    }
+    return new AvailabilityCalendarResponse(propertyId, from, to, calendar.runs(from, to));
+  }
+
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookingChanged(BookingChangedEvent event) {
+    cache.invalidate(event.propertyId());
+  }
+
+  public long size() {
+    cache.cleanUp();
+    return cache.estimatedSize();
+  }
+
+  private PropertyCalendar load(Long propertyId) {
+    LocalDate from = LocalDate.now();
+    LocalDate to = from.plusDays(properties.horizonDays());
+    return PropertyCalendar.of(from, to, findOccupiedRanges(propertyId, from, to));
+  }
+
+  private List<OccupiedRange> findOccupiedRanges(Long propertyId, LocalDate from, LocalDate to) {
+    return shardRouter.onProperty(
+        propertyId, () -> occupancyStore.findOccupiedRanges(propertyId, from, to));
+  }
+
+  private static final class PropertyCalendar {
+    private final long start;
+    private final byte[] states;
+
+    private PropertyCalendar(long start, byte[] states) {
+      this.start = start;
+      this.states = states;
+    }
+
+    static PropertyCalendar of(LocalDate from, LocalDate to, List<OccupiedRange> ranges) {
+      long start = from.toEpochDay();
+      long end = to.toEpochDay();
+      byte[] states = new byte[(int) (end - start + 1)];
+      Arrays.fill(states, (byte) DayState.FREE.ordinal());
+      for (OccupiedRange range : ranges) {
+        DayState state =
+            range.bookingType() == BookingType.BLOCK ? DayState.BLOCKED : DayState.RESERVED;
+        long first = Math.max(range.startDate().toEpochDay(), start);
+        long last = Math.min(range.endDate().toEpochDay(), end);
+        for (long day = first; day <= last; day++) {
+          int i = (int) (day - start);
+          if (state.ordinal() > states[i]) {
+            states[i] = (byte) state.ordinal();
+          }
+        }
+      }
+      return new PropertyCalendar(start, states);
+    }
+
+    boolean covers(LocalDate from, LocalDate to) {
+      return from.toEpochDay() >= start && to.toEpochDay() < start + states.length;
+    }
+
+    List<AvailabilityRun> runs(LocalDate from, LocalDate to) {
+      List<AvailabilityRun> runs = new ArrayList<>();
+      int first = (int) (from.toEpochDay() - start);
+      int last = (int) (to.toEpochDay() - start);
+      int runStart = first;
+      for (int i = first + 1; i <= last + 1; i++) {
+        if (i > last || states[i] != states[runStart]) {
+          runs.add(
+              new AvailabilityRun(
+                  LocalDate.ofEpochDay(start + runStart),
+                  LocalDate.ofEpochDay(start + i - 1),
+                  STATES[states[runStart]]));
+          runStart = i;
+        }
+      }
+      return runs;
+    }
+  }
+}
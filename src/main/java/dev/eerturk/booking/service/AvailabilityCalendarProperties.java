@@ -0,0 +1,12 @@
+package dev.eerturk.booking.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.calendar")
+public record AvailabilityCalendarProperties(
+    @DefaultValue("10000") long maximumSize,
+    @DefaultValue("1h") Duration expireAfterWrite,
+    @DefaultValue("730") int horizonDays,
+    @DefaultValue("366") int maximumDays) {}
@@ -0,0 +1,243 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.InvalidDateRangeException;
+import dev.eerturk.booking.dto.AvailabilitySearchResponse;
+import dev.eerturk.booking.dto.OccupiedRange;
+import dev.eerturk.booking.dto.PropertyOccupancy;
+import dev.eerturk.booking.event.BookingChangedEvent;
+import dev.eerturk.booking.event.ChangeType;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class AvailabilitySearch {
+  private final OccupancyStore occupancyStore;
+  private final ShardRouter shardRouter;
+  private final AvailabilitySearchProperties properties;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Object loadMonitor = new Object();
+  private volatile Occupancy occupancy;
+  private List<Change> pending;
+
+  public AvailabilitySearch(
+      OccupancyStore occupancyStore,
+      ShardRouter shardRouter,
+      AvailabilitySearchProperties properties) {
+    this.occupancyStore = occupancyStore;
+    this.shardRouter = shardRouter;
+    this.properties = properties;
+  }
+
+  public AvailabilitySearchResponse search(
+      LocalDate from, LocalDate to, Collection<Long> propertyIds) {
+    if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= properties.maximumDays()) {
+      throw new InvalidDateRangeException(from, to);
+    }
+    Occupancy current = load();
+    if (from.toEpochDay() < current.coverageStart) {
+      throw new InvalidDateRangeException(from, to);
+    }
+    lock.readLock().lock();
+    try {
+      BitSet occupied = current.occupied(from.toEpochDay(), to.toEpochDay());
+      List<Long> free = new ArrayList<>();
+      if (propertyIds == null || propertyIds.isEmpty()) {
+        for (int ordinal = occupied.nextClearBit(0);
+            ordinal < current.propertyIds.size();
+            ordinal = occupied.nextClearBit(ordinal + 1)) {
+          free.add(current.propertyIds.get(ordinal));
+        }
+      } else {
+        for (Long propertyId : propertyIds) {
+          Integer ordinal = current.ordinals.get(propertyId);
+          if (ordinal == null || !occupied.get(ordinal)) {
+            free.add(propertyId);
+          }
+        }
+      }
+      free.sort(null);
+      return new AvailabilitySearchResponse(from, to, free);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookingChanged(BookingChangedEvent event) {
+    if (event.type() == ChangeType.ARCHIVED) {
+      return;
+    }
+    Change change = new Change(event, occupiedRanges(event));
+    lock.writeLock().lock();
+    try {
+      if (occupancy == null) {
+        if (pending != null) {
+          pending.add(change);
+        }
+        return;
+      }
+      apply(occupancy, change);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public long preload() {
+    return load().rows;
+  }
+
+  public int size() {
+    Occupancy current = occupancy;
+    return current == null ? 0 : current.propertyIds.size();
+  }
+
+  private Occupancy load() {
+    Occupancy current = occupancy;
+    if (current != null) {
+      return current;
+    }
+    synchronized (loadMonitor) {
+      if (occupancy != null) {
+        return occupancy;
+      }
+      lock.writeLock().lock();
+      try {
+        pending = new ArrayList<>();
+      } finally {
+        lock.writeLock().unlock();
+      }
+      LocalDate coverageStart = LocalDate.now();
+      Occupancy loaded = new Occupancy(coverageStart.toEpochDay());
+      try {
+        for (int shard = 0; shard < shardRouter.shards(); shard++) {
+          int route = shard;
+          List<Long> propertyIds =
+              shardRouter.onShard(
+                  route, () -> occupancyStore.findOccupiedPropertyIds(coverageStart));
+          for (int from = 0; from < propertyIds.size(); from += properties.chunkSize()) {
+            List<Long> chunk =
+                propertyIds.subList(
+                    from, Math.min(from + properties.chunkSize(), propertyIds.size()));
+            for (PropertyOccupancy range :
+                shardRouter.onShard(
+                    route, () -> occupancyStore.findOccupancies(chunk, coverageStart))) {
+              loaded.set(
+                  range.propertyId(), range.startDate().toEpochDay(), range.endDate().toEpochDay());
+              loaded.rows++;
+            }
+          }
+        }
+      } catch (RuntimeException e) {
+        lock.writeLock().lock();
+        try {
+          pending = null;
+        } finally {
+          lock.writeLock().unlock();
+        }
+        throw e;
+      }
+      lock.writeLock().lock();
+      try {
+        for (Change change : pending) {
+          apply(loaded, change);
+        }
+        pending = null;
+        occupancy = loaded;
+      } finally {
+        lock.writeLock().unlock();
+      }
+      return loaded;
+    }
+  }
+
+  private List<OccupiedRange> occupiedRanges(BookingChangedEvent event) {
+    if (event.occupies() || !event.isBlock()) {
+      return List.of();
+    }
+    return shardRouter.onProperty(
+        event.propertyId(),
+        () ->
+            occupancyStore.findOccupiedRanges(
+                event.propertyId(), event.startDate(), event.endDate()));
+  }
+
+  private static void apply(Occupancy target, Change change) {
+    BookingChangedEvent event = change.event();
+    long from = event.startDate().toEpochDay();
+    long to = event.endDate().toEpochDay();
+    if (event.occupies()) {
+      target.set(event.propertyId(), from, to);
+      return;
+    }
+    target.clear(event.propertyId(), from, to);
+    for (OccupiedRange range : change.ranges()) {
+      target.set(
+          event.propertyId(),
+          Math.max(range.startDate().toEpochDay(), from),
+          Math.min(range.endDate().toEpochDay(), to));
+    }
+  }
+
+  private record Change(BookingChangedEvent event, List<OccupiedRange> ranges) {}
+
+  private static final class Occupancy {
+    private final long coverageStart;
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<Long> propertyIds = new ArrayList<>();
+    private final Map<Long, BitSet> days = new HashMap<>();
+    private long rows;
+
+    Occupancy(long coverageStart) {
+      this.coverageStart = coverageStart;
+    }
+
+    void set(Long propertyId, long from, long to) {
+      int ordinal = ordinals.computeIfAbsent(propertyId, this::register);
+      for (long day = Math.max(from, coverageStart); day <= to; day++) {
+        days.computeIfAbsent(day, key -> new BitSet()).set(ordinal);
+      }
+    }
+
+    void clear(Long propertyId, long from, long to) {
+      Integer ordinal = ordinals.get(propertyId);
+      if (ordinal == null) {
+        return;
+      }
+      for (long day = Math.max(from, coverageStart); day <= to; day++) {
+        BitSet occupied = days.get(day);
+        if (occupied != null) {
+          occupied.clear(ordinal);
+        }
+      }
+    }
+
+    BitSet occupied(long from, long to) {
+      BitSet occupied = new BitSet(propertyIds.size());
+      for (long day = from; day <= to; day++) {
+        BitSet bitmap = days.get(day);
+        if (bitmap != null) {
+          occupied.or(bitmap);
+        }
+      }
+      return occupied;
+    }
+
+    private int register(Long propertyId) {
+      propertyIds.add(propertyId);
+      return propertyIds.size() - 1;
+    }
+  }
+}
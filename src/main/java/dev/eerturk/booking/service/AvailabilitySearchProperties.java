@@ -0,0 +1,8 @@
+package dev.eerturk.booking.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.availability-search")
+public record AvailabilitySearchProperties(
+    @DefaultValue("366") int maximumDays, @DefaultValue("500") int chunkSize) {}
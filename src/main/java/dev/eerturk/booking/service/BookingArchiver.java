@@ -0,0 +1,132 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.dao.ArchivedBookingRepository;
+import dev.eerturk.booking.dao.BookingDateRepository;
+import dev.eerturk.booking.dao.BookingRepository;
+import dev.eerturk.booking.event.BookingChangedEvent;
+import dev.eerturk.booking.event.ChangeType;
+import dev.eerturk.booking.model.Booking;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.IntSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class BookingArchiver {
+  private static final Logger LOGGER = LoggerFactory.getLogger(BookingArchiver.class);
+
+  private final BookingRepository bookingRepository;
+  private final BookingDateRepository bookingDateRepository;
+  private final ArchivedBookingRepository archivedBookingRepository;
+  private final ShardRouter shardRouter;
+  private final ArchiveProperties properties;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Counter archivedBookings;
+  private final Counter archivedDates;
+
+  public BookingArchiver(
+      BookingRepository bookingRepository,
+      BookingDateRepository bookingDateRepository,
+      ArchivedBookingRepository archivedBookingRepository,
+      ShardRouter shardRouter,
+      ArchiveProperties properties,
+      PlatformTransactionManager transactionManager,
+      ApplicationEventPublisher eventPublisher,
+      MeterRegistry meterRegistry) {
+    this.bookingRepository = bookingRepository;
+    this.bookingDateRepository = bookingDateRepository;
+    this.archivedBookingRepository = archivedBookingRepository;
+    this.shardRouter = shardRouter;
+    this.properties = properties;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.eventPublisher = eventPublisher;
+    this.archivedBookings =
+        Counter.builder("booking.archived").tag("table", "booking").register(meterRegistry);
+    this.archivedDates =
+        Counter.builder("booking.archived").tag("table", "booking_date").register(meterRegistry);
+  }
+
+  @Scheduled(
+      initialDelayString = "${booking.archive.interval:PT1H}",
+      fixedDelayString = "${booking.archive.interval:PT1H}")
+  public void archivePast() {
+    if (properties.enabled()) {
+      archiveBefore(LocalDate.now().minusDays(properties.retention().toDays()));
+    }
+  }
+
+  public void archiveBefore(LocalDate before) {
+    long dates = 0;
+    long bookings = 0;
+    for (ArchiveRun run :
+        shardRouter.onEveryShard(
+            () ->
+                new ArchiveRun(
+                    drain(() -> archiveDates(before)), drain(() -> archiveBookings(before))))) {
+      dates += run.dates();
+      bookings += run.bookings();
+    }
+    if (dates > 0 || bookings > 0) {
+      LOGGER.info(
+          "Archived {} bookings and {} booking dates dated before {}", bookings, dates, before);
+    }
+  }
+
+  private long drain(IntSupplier batch) {
+    long total = 0;
+    int archived;
+    do {
+      archived = batch.getAsInt();
+      total += archived;
+    } while (archived == properties.batchSize());
+    return total;
+  }
+
+  private int archiveDates(LocalDate before) {
+    return transactionTemplate.execute(
+        status -> {
+          List<Long> ids =
+              bookingDateRepository.findIdsDatedBefore(
+                  before, PageRequest.ofSize(properties.batchSize()));
+          if (!ids.isEmpty()) {
+            archivedBookingRepository.archiveDates(ids);
+            bookingDateRepository.deleteByIds(ids);
+            archivedDates.increment(ids.size());
+          }
+          return ids.size();
+        });
+  }
+
+  private int archiveBookings(LocalDate before) {
+    return transactionTemplate.execute(
+        status -> {
+          List<Booking> bookings =
+              bookingRepository.findAllEndedBefore(
+                  before, PageRequest.ofSize(properties.batchSize()));
+          List<Long> ids = bookings.stream().map(Booking::getId).toList();
+          if (!ids.isEmpty()) {
+            archivedBookingRepository.archive(ids, Instant.now());
+            bookingRepository.deleteByIds(ids);
+            archivedBookings.increment(ids.size());
+            bookings.forEach(
+                booking ->
+                    eventPublisher.publishEvent(
+                        BookingChangedEvent.of(ChangeType.ARCHIVED, booking)));
+          }
+          return ids.size();
+        });
+  }
+
+  private record ArchiveRun(long dates, long bookings) {}
+}
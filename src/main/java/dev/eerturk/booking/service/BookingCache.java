@@ -0,0 +1,54 @@
+package dev.eerturk.booking.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import dev.eerturk.booking.dao.BookingRepository;
+import dev.eerturk.booking.dao.DataSourceRoute;
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.event.BookingChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Optional;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class BookingCache {
+  private final LoadingCache<Long, BookingDetailResponse> cache;
+
+  public BookingCache(
+      BookingRepository repository,
+      ShardRouter shardRouter,
+      BookingCacheProperties properties,
+      MeterRegistry registry) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(properties.maximumSize())
+            .expireAfterWrite(properties.expireAfterWrite())
+            .recordStats()
+            .build(
+                id ->
+                    DataSourceRoute.onPrimary(
+                        () ->
+                            shardRouter.onBooking(
+                                id, () -> repository.findDetailById(id).orElse(null))));
+    CaffeineCacheMetrics.monitor(registry, cache, "bookings");
+  }
+
+  public Optional<BookingDetailResponse> find(Long id) {
+    return Optional.ofNullable(cache.get(id));
+  }
+
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookingChanged(BookingChangedEvent event) {
+    cache.invalidate(event.bookingId());
+  }
+
+  public long size() {
+    cache.cleanUp();
+    return cache.estimatedSize();
+  }
+}
@@ -0,0 +1,9 @@
+package dev.eerturk.booking.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.cache")
+public record BookingCacheProperties(
+    @DefaultValue("10000") long maximumSize, @DefaultValue("10m") Duration expireAfterWrite) {}
@@ -0,0 +1,116 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.dto.BookingChange;
+import dev.eerturk.booking.event.BookingChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+@Component
+public class BookingChangeFeed {
+  private static final Logger LOGGER = LoggerFactory.getLogger(BookingChangeFeed.class);
+  private static final int SEQUENCE_BITS = 36;
+
+  private final ChangeFeedProperties properties;
+  private final Deque<BookingChange> retained = new ArrayDeque<>();
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final Counter dropped;
+  private final long instance = ThreadLocalRandom.current().nextLong(1, 1 << 16);
+  private long sequence = instance << SEQUENCE_BITS;
+
+  public BookingChangeFeed(ChangeFeedProperties properties, MeterRegistry registry) {
+    this.properties = properties;
+    this.dropped =
+        Counter.builder("booking.changes.dropped")
+            .description("Change feed subscribers dropped for falling behind")
+            .register(registry);
+    Gauge.builder("booking.changes.subscribers", subscribers, Set::size)
+        .description("Open change feed subscriptions")
+        .register(registry);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onBookingChanged(BookingChangedEvent event) {
+    BookingChange change = BookingChange.of(++sequence, event, Instant.now());
+    retained.addLast(change);
+    if (retained.size() > properties.retained()) {
+      retained.removeFirst();
+    }
+    for (Subscriber subscriber : subscribers) {
+      if (!subscriber.accepts(change)) {
+        continue;
+      }
+      Sinks.EmitResult result = subscriber.sink.tryEmitNext(change);
+      if (result.isFailure()) {
+        subscribers.remove(subscriber);
+      }
+      if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+        dropped.increment();
+        LOGGER.warn("Dropping change feed subscriber that fell behind at {}", change.sequence());
+        subscriber.sink.tryEmitError(
+            new IllegalStateException("The change feed subscriber fell behind."));
+      }
+    }
+  }
+
+  public Flux<BookingChange> changes(Long propertyId, Long after) {
+    return Flux.defer(
+        () -> {
+          Subscriber subscriber = new Subscriber(propertyId, properties.bufferSize());
+          List<BookingChange> replay = subscribe(subscriber, after);
+          return Flux.concat(Flux.fromIterable(replay), subscriber.sink.asFlux())
+              .publishOn(Schedulers.boundedElastic(), 1)
+              .doFinally(signal -> subscribers.remove(subscriber));
+        });
+  }
+
+  public synchronized boolean isResumable(long after) {
+    if (after >>> SEQUENCE_BITS != instance) {
+      return false;
+    }
+    long oldest = retained.isEmpty() ? sequence : retained.peekFirst().sequence() - 1;
+    return after >= oldest && after <= sequence;
+  }
+
+  private synchronized List<BookingChange> subscribe(Subscriber subscriber, Long after) {
+    List<BookingChange> replay = new ArrayList<>();
+    for (BookingChange change : retained) {
+      if (after != null && change.sequence() > after && subscriber.accepts(change)) {
+        replay.add(change);
+      }
+    }
+    subscribers.add(subscriber);
+    return replay;
+  }
+
+  private static final class Subscriber {
+    private final Long propertyId;
+    private final Sinks.Many<BookingChange> sink;
+
+    Subscriber(Long propertyId, int bufferSize) {
+      this.propertyId = propertyId;
+      this.sink =
+          Sinks.many().unicast().onBackpressureBuffer(Queues.<BookingChange>get(bufferSize).get());
+    }
+
+    boolean accepts(BookingChange change) {
+      return propertyId == null || propertyId.equals(change.propertyId());
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.dto.BookingHold;
+import dev.eerturk.booking.model.Booking;
+import dev.eerturk.booking.web.CreateBookingRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class BookingHolds {
+  private final HoldProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final TimerWheel<Entry> wheel;
+  private final ConcurrentMap<String, Entry> holds = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, Set<Entry>> holdsByProperty = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+  public BookingHolds(HoldProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+    this.wheel = new TimerWheel<>(properties.tick(), properties.wheelSize(), System.nanoTime());
+    Gauge.builder("booking.holds.active", holds, ConcurrentMap::size)
+        .description("Tentative holds waiting for confirmation")
+        .register(meterRegistry);
+  }
+
+  BookingHold place(CreateBookingRequest command) {
+    long deadline = System.nanoTime() + properties.ttl().toNanos();
+    BookingHold hold =
+        new BookingHold(
+            UUID.randomUUID().toString(),
+            command.propertyId(),
+            command.startDate(),
+            command.endDate(),
+            command.guestId(),
+            Instant.now().plus(properties.ttl()));
+    Entry entry = new Entry(hold, deadline);
+    add(entry);
+    wheel.schedule(entry, deadline);
+    count("placed");
+    return hold;
+  }
+
+  public Optional<BookingHold> find(String id) {
+    return Optional.ofNullable(holds.get(id))
+        .filter(entry -> entry.isLive(System.nanoTime()))
+        .map(Entry::hold);
+  }
+
+  Optional<BookingHold> take(String id, String outcome) {
+    Entry entry = holds.get(id);
+    if (entry == null || !entry.isLive(System.nanoTime()) || !remove(entry)) {
+      return Optional.empty();
+    }
+    count(outcome);
+    return Optional.of(entry.hold());
+  }
+
+  Optional<BookingHold> takeUntilCompletion(String id, String outcome) {
+    Entry entry = holds.get(id);
+    if (entry == null || !entry.isLive(System.nanoTime()) || !remove(entry)) {
+      return Optional.empty();
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      count(outcome);
+      return Optional.of(entry.hold());
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+              count(outcome);
+            } else {
+              restore(entry);
+            }
+          }
+        });
+    return Optional.of(entry.hold());
+  }
+
+  boolean conflicts(Booking booking) {
+    Set<Entry> entries = holdsByProperty.get(booking.getPropertyId());
+    if (entries == null) {
+      return false;
+    }
+    long now = System.nanoTime();
+    for (Entry entry : entries) {
+      BookingHold hold = entry.hold();
+      boolean overlaps =
+          !hold.startDate().isAfter(booking.getEndDate())
+              && !hold.endDate().isBefore(booking.getStartDate());
+      if (overlaps && entry.isLive(now) && !(booking.isBlock() && hold.guestId() == null)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Scheduled(fixedRateString = "${booking.holds.tick:PT1S}")
+  public void expire() {
+    expire(System.nanoTime());
+  }
+
+  void expire(long nowNanos) {
+    for (Entry entry : wheel.advance(nowNanos)) {
+      if (remove(entry)) {
+        count("expired");
+      }
+    }
+  }
+
+  public int size() {
+    return holds.size();
+  }
+
+  private void add(Entry entry) {
+    holds.put(entry.hold().id(), entry);
+    holdsByProperty.compute(
+        entry.hold().propertyId(),
+        (propertyId, entries) -> {
+          Set<Entry> updated = entries != null ? entries : ConcurrentHashMap.newKeySet();
+          updated.add(entry);
+          return updated;
+        });
+  }
+
+  private void restore(Entry entry) {
+    if (entry.isLive(System.nanoTime())) {
+      add(entry);
+      wheel.schedule(entry, entry.deadline());
+    }
+  }
+
+  private boolean remove(Entry entry) {
+    if (!holds.remove(entry.hold().id(), entry)) {
+      return false;
+    }
+    holdsByProperty.computeIfPresent(
+        entry.hold().propertyId(),
+        (propertyId, entries) -> {
+          entries.remove(entry);
+          return entries.isEmpty() ? null : entries;
+        });
+    return true;
+  }
+
+  private void count(String outcome) {
+    counters
+        .computeIfAbsent(
+            outcome,
+            key ->
+                Counter.builder("booking.holds")
+                    .description("Tentative holds by outcome")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry))
+        .increment();
+  }
+
+  private record Entry(BookingHold hold, long deadline) {
+    boolean isLive(long now) {
+      return now - deadline < 0;
+    }
+  }
+}
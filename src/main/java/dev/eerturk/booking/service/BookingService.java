@@ -2,46 +2,304 @@ package dev.eerturk.booking.service;
 
 import dev.eerturk.booking.BookingIsNotDeleteAbleException;
 import dev.eerturk.booking.BookingNotFoundException;
+import dev.eerturk.booking.HoldNotFoundException;
+import dev.eerturk.booking.InvalidDateRangeException;
 import dev.eerturk.booking.ReservationAlreadyExistsException;
-import dev.eerturk.booking.dao.BookingDateRepository;
+import dev.eerturk.booking.dao.ArchivedBookingRepository;
 import dev.eerturk.booking.dao.BookingRepository;
+import dev.eerturk.booking.dto.BatchItemResult;
 import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.dto.BookingHold;
+import dev.eerturk.booking.dto.BookingSearchCriteria;
+import dev.eerturk.booking.dto.BulkOperationResult;
+import dev.eerturk.booking.dto.BulkRejection;
+import dev.eerturk.booking.event.BookingChangedEvent;
+import dev.eerturk.booking.event.ChangeType;
 import dev.eerturk.booking.model.Booking;
 import dev.eerturk.booking.model.BookingType;
 import dev.eerturk.booking.model.Status;
+import dev.eerturk.booking.web.BulkBookingRequest;
 import dev.eerturk.booking.web.CreateBookingRequest;
+import io.micrometer.core.annotation.Timed;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class BookingService {
   private final BookingRepository repository;
-  private final BookingDateRepository bookingDateRepository;
+  private final ArchivedBookingRepository archivedBookingRepository;
+  private final OccupancyStore occupancyStore;
+  private final PropertyLocks propertyLocks;
+  private final BookingCache bookingCache;
+  private final BookingHolds bookingHolds;
+  private final ShardRouter shardRouter;
+  private final OptimisticRetry optimisticRetry;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate readOnlyTransactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public BookingService(BookingRepository repository, BookingDateRepository bookingDateRepository) {
+  public BookingService(
+      BookingRepository repository,
+      ArchivedBookingRepository archivedBookingRepository,
+      OccupancyStore occupancyStore,
+      PropertyLocks propertyLocks,
+      BookingCache bookingCache,
+      BookingHolds bookingHolds,
+      ShardRouter shardRouter,
+      OptimisticRetry optimisticRetry,
+      PlatformTransactionManager transactionManager,
+      ApplicationEventPublisher eventPublisher) {
     this.repository = repository;
-    this.bookingDateRepository = bookingDateRepository;
+    this.archivedBookingRepository = archivedBookingRepository;
+    this.occupancyStore = occupancyStore;
+    this.propertyLocks = propertyLocks;
+    this.bookingCache = bookingCache;
+    this.bookingHolds = bookingHolds;
+    this.shardRouter = shardRouter;
+    this.optimisticRetry = optimisticRetry;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate.setReadOnly(true);
+    this.eventPublisher = eventPublisher;
   }
 
-  @Transactional(readOnly = true)
-  public List<BookingDetailResponse> findAll() {
-    return repository.findAll().stream()
-        .map(
-            each ->
-                new BookingDetailResponse(
-                    each.getId(),
-                    each.getPropertyId(),
-                    each.getStartDate(),
-                    each.getEndDate(),
-                    each.getGuestId(),
-                    each.getStatus()))
-        .collect(Collectors.toList());
+  @Timed(
+      value = "booking.service",
+      extraTags = {"operation", "findPage"})
+  public List<BookingDetailResponse> findPage(long after, int limit) {
+    return merge(
+        shardRouter.onEveryShard(
+            () ->
+                readOnlyTransactionTemplate.execute(
+                    status -> repository.findPage(after, PageRequest.ofSize(limit)))),
+        limit);
   }
 
+  @Timed(
+      value = "booking.service",
+      extraTags = {"operation", "findById"})
+  public BookingDetailResponse findById(Long id, boolean includeArchived) {
+    return bookingCache
+        .find(id)
+        .or(
+            () ->
+                includeArchived
+                    ? shardRouter.onBooking(id, () -> archivedBookingRepository.findDetailById(id))
+                    : Optional.empty())
+        .orElseThrow(() -> new BookingNotFoundException(id));
+  }
+
+  @Timed(
+      value = "booking.service",
+      extraTags = {"operation", "search"})
+  public List<BookingDetailResponse> search(
+      BookingSearchCriteria criteria, long after, int limit, boolean includeArchived) {
+    Supplier<List<BookingDetailResponse>> search =
+        () ->
+            readOnlyTransactionTemplate.execute(
+                status ->
+                    includeArchived
+                        ? merge(
+                            List.of(
+                                repository.search(criteria, after, limit),
+                                repository.searchArchive(criteria, after, limit)),
+                            limit)
+                        : repository.search(criteria, after, limit));
+    if (criteria.propertyId() != null) {
+      return shardRouter.onProperty(criteria.propertyId(), search);
+    }
+    return merge(shardRouter.onEveryShard(search), limit);
+  }
+
+  private static List<BookingDetailResponse> merge(
+      List<List<BookingDetailResponse>> pages, int limit) {
+    if (pages.size() == 1) {
+      return pages.get(0);
+    }
+    return pages.stream()
+        .flatMap(List::stream)
+        .sorted(Comparator.comparing(BookingDetailResponse::id))
+        .limit(limit)
+        .toList();
+  }
+
+  @Timed(
+      value = "booking.service",
+      extraTags = {"operation", "findAll"})
+  public void forEachBooking(long after, int chunkSize, Consumer<BookingDetailResponse> consumer) {
+    List<BookingDetailResponse> chunk;
+    do {
+      chunk = findPage(after, chunkSize);
+      chunk.forEach(consumer);
+      if (!chunk.isEmpty()) {
+        after = chunk.get(chunk.size() - 1).id();
+      }
+    } while (chunk.size() == chunkSize);
+  }
+
+  @Timed(
+      value = "booking.service",
+      extraTags = {"operation", "create"})
   @Transactional
   public BookingDetailResponse create(CreateBookingRequest command) {
+    return shardRouter.onProperty(command.propertyId(), () -> persist(command));
+  }
+
+  BookingDetailResponse persist(CreateBookingRequest command) {
+    Booking booking = newBooking(command);
+    occupancyStore.occupy(booking);
+    propertyLocks.lockUntilCompletion(booking.getPropertyId());
+    validateBookingDates(booking);
+    repository.save(booking);
+    flush(booking);
+    eventPublisher.publishEvent(BookingChangedEvent.of(ChangeType.CREATED, booking));
+    return toResponse(booking);
+  }
+
+  @Timed(
+      value = "booking.service",
+      extraTags = {"operation", "hold"})
+  public BookingHold hold(CreateBookingRequest command) {
+    if (command.endDate().isBefore(command.startDate())) {
+      throw new InvalidDateRangeException(command.startDate(), command.endDate());
+    }
+    return shardRouter.onProperty(
+        command.propertyId(),
+        () ->
+            transactionTemplate.execute(
+                status -> {
+                  propertyLocks.lockUntilCompletion(command.propertyId());
+                  validateBookingDates(newBooking(command));
+                  return bookingHolds.place(command);
+                }));
+  }
+
+  @Timed(
+      value = "booking.service",
+      extraTags = {"operation", "confirmHold"})
+  public BookingDetailResponse confirmHold(String holdId) {
+    BookingHold hold =
+        bookingHolds.find(holdId).orElseThrow(() -> new HoldNotFoundException(holdId));
+    return shardRouter.onProperty(
+        hold.propertyId(),
+        () ->
+            transactionTemplate.execute(
+                status -> {
+                  propertyLocks.lockUntilCompletion(hold.propertyId());
+                  bookingHolds
+                      .takeUntilCompletion(holdId, "confirmed")
+                      .orElseThrow(() -> new HoldNotFoundException(holdId));
+                  return persist(hold.toRequest());
+                }));
+  }
+
+  @Timed(
+      value = "booking.service",
+      extraTags = {"operation", "releaseHold"})
+  public void releaseHold(String holdId) {
+    bookingHolds.take(holdId, "released").orElseThrow(() -> new HoldNotFoundException(holdId));
+  }
+
+  @Timed(
+      value = "booking.service",
+      extraTags = {"operation", "createAll"})
+  public List<BatchItemResult> createAll(List<CreateBookingRequest> commands) {
+    BatchItemResult[] results = new BatchItemResult[commands.size()];
+    Map<Integer, List<Integer>> groups =
+        shardRouter.partition(
+            IntStream.range(0, commands.size()).boxed().toList(),
+            index -> shardRouter.shardFor(commands.get(index).propertyId()));
+    RuntimeException failure = null;
+    int committed = 0;
+    for (Map.Entry<Integer, List<Integer>> group : groups.entrySet()) {
+      try {
+        shardRouter.onShard(
+            group.getKey(),
+            () ->
+                transactionTemplate.execute(
+                    status -> createAll(commands, group.getValue(), results)));
+        committed++;
+      } catch (RuntimeException e) {
+        failure = failure != null ? failure : e;
+        for (int index : group.getValue()) {
+          results[index] = BatchItemResult.rejected(index, e.getMessage());
+        }
+      }
+    }
+    if (committed == 0 && failure != null) {
+      throw failure;
+    }
+    return Arrays.asList(results);
+  }
+
+  private BatchItemResult[] createAll(
+      List<CreateBookingRequest> commands, List<Integer> indexes, BatchItemResult[] results) {
+    Map<Integer, Booking> accepted = new LinkedHashMap<>();
+    Map<Integer, String> rejected = new HashMap<>();
+    PendingOccupancy pending = new PendingOccupancy();
+    propertyLocks.lockUntilCompletion(
+        indexes.stream()
+            .map(index -> commands.get(index).propertyId())
+            .collect(Collectors.toSet()));
+    for (int index : indexes) {
+      Booking booking = newBooking(commands.get(index));
+      if (booking.getEndDate().isBefore(booking.getStartDate())) {
+        rejected.put(index, "The booking end date must not be before the start date.");
+      } else if (pending.conflicts(booking) || !isAvailable(booking)) {
+        rejected.put(
+            index,
+            new ReservationAlreadyExistsException(
+                    booking.getStartDate(), booking.getEndDate(), booking.getPropertyId())
+                .getMessage());
+      } else {
+        occupancyStore.occupy(booking);
+        pending.add(booking);
+        accepted.put(index, booking);
+      }
+    }
+    repository.saveAll(accepted.values());
+    try {
+      repository.flush();
+    } catch (DataIntegrityViolationException e) {
+      throw new ReservationAlreadyExistsException(
+          accepted.values().stream().map(Booking::getPropertyId).collect(Collectors.toSet()));
+    }
+    accepted
+        .values()
+        .forEach(
+            booking ->
+                eventPublisher.publishEvent(BookingChangedEvent.of(ChangeType.CREATED, booking)));
+    for (int index : indexes) {
+      results[index] =
+          accepted.containsKey(index)
+              ? BatchItemResult.created(index, toResponse(accepted.get(index)))
+              : BatchItemResult.rejected(index, rejected.get(index));
+    }
+    return results;
+  }
+
+  private static Booking newBooking(CreateBookingRequest command) {
     Booking booking = new Booking();
     booking
         .setStatus(Status.ACTIVE)
@@ -50,9 +308,10 @@ public class BookingService {
         .setGuestId(command.guestId())
         .setPropertyId(command.propertyId())
         .setBookingType(command.guestId() != null ? BookingType.RESERVATION : BookingType.BLOCK);
-    booking.initDates();
-    validateBookingDates(booking);
-    repository.save(booking);
+    return booking;
+  }
+
+  private static BookingDetailResponse toResponse(Booking booking) {
     return new BookingDetailResponse(
         booking.getId(),
         booking.getPropertyId(),
@@ -62,38 +321,60 @@ public class BookingService {
         booking.getStatus());
   }
 
+  private void flush(Booking booking) {
+    try {
+      repository.flush();
+    } catch (DataIntegrityViolationException e) {
+      throw new ReservationAlreadyExistsException(
+          booking.getStartDate(), booking.getEndDate(), booking.getPropertyId());
+    }
+  }
+
   private void validateBookingDates(Booking booking) {
+    if (!isAvailable(booking)) {
+      throw new ReservationAlreadyExistsException(
+          booking.getStartDate(), booking.getEndDate(), booking.getPropertyId());
+    }
+  }
+
+  private boolean isAvailable(Booking booking) {
+    if (bookingHolds.conflicts(booking)) {
+      return false;
+    }
     if (booking.isBlock()) {
-      boolean existReservation =
-          bookingDateRepository.existsByPropertyIdAndBookingTypeAndDateBetween(
-              booking.getPropertyId(),
-              BookingType.RESERVATION,
-              booking.getStartDate(),
-              booking.getEndDate());
-
-      if (existReservation) {
-        throw new ReservationAlreadyExistsException(
-            booking.getStartDate(), booking.getEndDate(), booking.getPropertyId());
-      }
-    } else {
-      boolean existReservation =
-          bookingDateRepository.existsByPropertyIdAndDateBetween(
-              booking.getPropertyId(), booking.getStartDate(), booking.getEndDate());
-
-      if (existReservation) {
-        throw new ReservationAlreadyExistsException(
-            booking.getStartDate(), booking.getEndDate(), booking.getPropertyId());
-      }
+      return !occupancyStore.existsReservation(
+          booking.getPropertyId(), booking.getStartDate(), booking.getEndDate());
     }
+    return !occupancyStore.existsAny(
+        booking.getPropertyId(), booking.getStartDate(), booking.getEndDate());
   }
 
-  @Transactional
+  @Timed(
+      value = "booking.service",
+      extraTags = {"operation", "delete"})
   public void delete(Long id) {
-    Booking booking = getBookingBy(id);
-    if (!booking.isBlock()) {
-      throw new BookingIsNotDeleteAbleException(id);
-    }
-    repository.delete(booking);
+    update(
+        "delete",
+        id,
+        () -> {
+          Booking booking = getBookingBy(id);
+          if (!booking.isBlock()) {
+            throw new BookingIsNotDeleteAbleException(id);
+          }
+          repository.delete(booking);
+          repository.flush();
+          eventPublisher.publishEvent(BookingChangedEvent.of(ChangeType.DELETED, booking));
+        });
+  }
+
+  private void update(String operation, Long id, Runnable body) {
+    shardRouter.runOnBooking(
+        id,
+        () ->
+            optimisticRetry.run(
+                operation,
+                id,
+                () -> transactionTemplate.executeWithoutResult(status -> body.run())));
   }
 
   private Booking getBookingBy(Long id, Status status) {
@@ -106,20 +387,166 @@ public class BookingService {
     return repository.findById(id).orElseThrow(() -> new BookingNotFoundException(id));
   }
 
-  @Transactional
+  @Timed(
+      value = "booking.service",
+      extraTags = {"operation", "cancel"})
   public void cancel(Long id) {
-    Booking booking = getBookingBy(id, Status.ACTIVE);
-    booking.deleteDates();
-    booking.setStatus(Status.CANCEL);
-    repository.save(booking);
+    update(
+        "cancel",
+        id,
+        () -> {
+          Booking booking = getBookingBy(id, Status.ACTIVE);
+          occupancyStore.release(booking);
+          booking.setStatus(Status.CANCEL);
+          repository.save(booking);
+          repository.flush();
+          eventPublisher.publishEvent(BookingChangedEvent.of(ChangeType.CANCELLED, booking));
+        });
   }
 
-  @Transactional
+  @Timed(
+      value = "booking.service",
+      extraTags = {"operation", "rebook"})
   public void rebook(Long id) {
-    Booking booking = getBookingBy(id, Status.CANCEL);
-    validateBookingDates(booking);
-    booking.setStatus(Status.ACTIVE);
-    booking.initDates();
-    repository.save(booking);
+    update(
+        "rebook",
+        id,
+        () -> {
+          Booking booking = getBookingBy(id, Status.CANCEL);
+          propertyLocks.lockUntilCompletion(booking.getPropertyId());
+          validateBookingDates(booking);
+          booking.setStatus(Status.ACTIVE);
+          occupancyStore.occupy(booking);
+          repository.save(booking);
+          flush(booking);
+          eventPublisher.publishEvent(BookingChangedEvent.of(ChangeType.REBOOKED, booking));
+        });
+  }
+
+  @Timed(
+      value = "booking.service",
+      extraTags = {"operation", "cancelAll"})
+  public BulkOperationResult cancelAll(BulkBookingRequest request) {
+    return bulk("cancelAll", request, this::cancelInShard);
+  }
+
+  private BulkOperationResult cancelInShard(BulkBookingRequest request) {
+    List<Booking> bookings = findAll(request, Status.ACTIVE);
+    List<Long> ids = bookings.stream().map(Booking::getId).toList();
+    if (ids.isEmpty()) {
+      return BulkOperationResult.of(ids);
+    }
+    occupancyStore.releaseAll(ids);
+    updateStatus(ids, Status.ACTIVE, Status.CANCEL);
+    for (Booking booking : bookings) {
+      booking.setStatus(Status.CANCEL);
+      eventPublisher.publishEvent(BookingChangedEvent.of(ChangeType.CANCELLED, booking));
+    }
+    return BulkOperationResult.of(ids);
+  }
+
+  @Timed(
+      value = "booking.service",
+      extraTags = {"operation", "rebookAll"})
+  public BulkOperationResult rebookAll(BulkBookingRequest request) {
+    return bulk("rebookAll", request, this::rebookInShard);
+  }
+
+  private BulkOperationResult rebookInShard(BulkBookingRequest request) {
+    List<Booking> bookings = findAll(request, Status.CANCEL);
+    List<Long> ids = bookings.stream().map(Booking::getId).toList();
+    if (ids.isEmpty()) {
+      return BulkOperationResult.of(ids);
+    }
+    Set<Long> propertyIds =
+        bookings.stream().map(Booking::getPropertyId).collect(Collectors.toSet());
+    propertyLocks.lockUntilCompletion(propertyIds);
+    Set<Long> conflicting = new TreeSet<>(repository.findConflictingPropertyIds(ids));
+    PendingOccupancy pending = new PendingOccupancy();
+    for (Booking booking : bookings) {
+      if (pending.conflicts(booking) || bookingHolds.conflicts(booking)) {
+        conflicting.add(booking.getPropertyId());
+      }
+      pending.add(booking);
+    }
+    if (!conflicting.isEmpty()) {
+      throw new ReservationAlreadyExistsException(conflicting);
+    }
+    updateStatus(ids, Status.CANCEL, Status.ACTIVE);
+    occupancyStore.occupyAll(bookings);
+    try {
+      repository.flush();
+    } catch (DataIntegrityViolationException e) {
+      throw new ReservationAlreadyExistsException(propertyIds);
+    }
+    for (Booking booking : bookings) {
+      booking.setStatus(Status.ACTIVE);
+      eventPublisher.publishEvent(BookingChangedEvent.of(ChangeType.REBOOKED, booking));
+    }
+    return BulkOperationResult.of(ids);
+  }
+
+  private void updateStatus(List<Long> ids, Status from, Status to) {
+    int updated = repository.updateStatus(ids, from, to);
+    if (updated != ids.size()) {
+      throw new OptimisticLockingFailureException(
+          "Expected to move " + ids.size() + " bookings to " + to + " but moved " + updated);
+    }
+  }
+
+  private BulkOperationResult bulk(
+      String name,
+      BulkBookingRequest request,
+      Function<BulkBookingRequest, BulkOperationResult> operation) {
+    if (!request.hasIds()) {
+      return shardRouter.onProperty(
+          request.propertyId(), () -> inTransaction(name, null, operation, request));
+    }
+    List<Long> ids = new ArrayList<>();
+    List<BulkRejection> rejected = new ArrayList<>();
+    RuntimeException failure = null;
+    int committed = 0;
+    for (Map.Entry<Integer, List<Long>> group :
+        shardRouter.partition(request.ids(), shardRouter::shardOfBooking).entrySet()) {
+      try {
+        ids.addAll(
+            shardRouter
+                .onShard(
+                    group.getKey(),
+                    () ->
+                        inTransaction(
+                            name,
+                            group.getValue().get(0),
+                            operation,
+                            BulkBookingRequest.of(group.getValue())))
+                .ids());
+        committed++;
+      } catch (RuntimeException e) {
+        failure = failure != null ? failure : e;
+        rejected.add(new BulkRejection(group.getValue(), e.getMessage()));
+      }
+    }
+    if (committed == 0 && failure != null) {
+      throw failure;
+    }
+    ids.sort(Comparator.naturalOrder());
+    return BulkOperationResult.of(ids, rejected);
+  }
+
+  private BulkOperationResult inTransaction(
+      String name,
+      Long bookingId,
+      Function<BulkBookingRequest, BulkOperationResult> operation,
+      BulkBookingRequest request) {
+    return optimisticRetry.call(
+        name, bookingId, () -> transactionTemplate.execute(status -> operation.apply(request)));
+  }
+
+  private List<Booking> findAll(BulkBookingRequest request, Status status) {
+    if (request.hasIds()) {
+      return repository.findAllByIdInAndStatusOrderById(request.ids(), status);
+    }
+    return repository.findAllOverlapping(
+        request.propertyId(), status, request.startDate(), request.endDate());
   }
 }
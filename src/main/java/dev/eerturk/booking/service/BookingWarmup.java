@@ -0,0 +1,110 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.web.CreateBookingRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BookingWarmup implements ApplicationRunner {
+  static final Long WARMUP_PROPERTY_ID = Long.MAX_VALUE;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BookingWarmup.class);
+
+  private final BookingService bookingService;
+  private final OccupancyStore occupancyStore;
+  private final AvailabilitySearch availabilitySearch;
+  private final ShardRouter shardRouter;
+  private final WarmupProperties properties;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate readOnlyTransactionTemplate;
+  private final Timer duration;
+  private final Counter searchRows;
+
+  public BookingWarmup(
+      BookingService bookingService,
+      OccupancyStore occupancyStore,
+      AvailabilitySearch availabilitySearch,
+      ShardRouter shardRouter,
+      WarmupProperties properties,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+    this.bookingService = bookingService;
+    this.occupancyStore = occupancyStore;
+    this.availabilitySearch = availabilitySearch;
+    this.shardRouter = shardRouter;
+    this.properties = properties;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate.setReadOnly(true);
+    this.duration = Timer.builder("booking.warmup").register(meterRegistry);
+    this.searchRows =
+        Counter.builder("booking.warmup.rows")
+            .tag("structure", "availability-search")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!properties.enabled()) {
+      return;
+    }
+    long started = System.nanoTime();
+    try {
+      searchRows.increment(availabilitySearch.preload());
+      warmQueries();
+      warmCreate();
+    } catch (RuntimeException e) {
+      LOGGER.warn("Warm-up stopped early, serving traffic with cold caches.", e);
+    }
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+    duration.record(elapsed);
+    LOGGER.info(
+        "Warm-up finished in {} ms with {} occupancy rows in the availability search.",
+        elapsed.toMillis(),
+        (long) searchRows.count());
+  }
+
+  private void warmQueries() {
+    LocalDate start = LocalDate.now().plusDays(1);
+    LocalDate end = start.plusDays(2);
+    for (int i = 0; i < properties.iterations(); i++) {
+      shardRouter.onEveryShard(
+          () ->
+              readOnlyTransactionTemplate.execute(
+                  status -> {
+                    occupancyStore.existsReservation(WARMUP_PROPERTY_ID, start, end);
+                    occupancyStore.existsAny(WARMUP_PROPERTY_ID, start, end);
+                    return occupancyStore.findOccupiedRanges(WARMUP_PROPERTY_ID, start, end);
+                  }));
+    }
+  }
+
+  private void warmCreate() {
+    LocalDate start = LocalDate.now().plusDays(1);
+    for (int i = 0; i < properties.iterations(); i++) {
+      CreateBookingRequest command =
+          CreateBookingRequest.of(
+              WARMUP_PROPERTY_ID, start, start.plusDays(2), i % 2 == 0 ? 1l : null);
+      shardRouter.onProperty(
+          WARMUP_PROPERTY_ID,
+          () ->
+              transactionTemplate.execute(
+                  status -> {
+                    status.setRollbackOnly();
+                    return bookingService.persist(command);
+                  }));
+    }
+  }
+}
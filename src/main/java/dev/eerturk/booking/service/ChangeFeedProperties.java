@@ -0,0 +1,11 @@
+package dev.eerturk.booking.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.changes")
+public record ChangeFeedProperties(
+    @DefaultValue("10000") int retained,
+    @DefaultValue("256") int bufferSize,
+    @DefaultValue("15s") Duration heartbeat) {}
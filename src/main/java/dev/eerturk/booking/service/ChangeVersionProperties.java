@@ -0,0 +1,9 @@
+package dev.eerturk.booking.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.versions")
+public record ChangeVersionProperties(
+    @DefaultValue("100000") long maximumSize, @DefaultValue("5s") Duration maxAge) {}
@@ -0,0 +1,44 @@
+package dev.eerturk.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.eerturk.booking.event.BookingChangedEvent;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class ChangeVersions {
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final AtomicLong global = new AtomicLong();
+  private final Cache<Long, Long> properties;
+  private final long maxAgeMillis;
+
+  public ChangeVersions(ChangeVersionProperties properties) {
+    this.properties = Caffeine.newBuilder().maximumSize(properties.maximumSize()).build();
+    this.maxAgeMillis = Math.max(1, properties.maxAge().toMillis());
+  }
+
+  public String globalTag(String variant) {
+    return tag(global.get(), variant);
+  }
+
+  public String propertyTag(Long propertyId, String variant) {
+    Long version = properties.getIfPresent(propertyId);
+    return tag(version != null ? version : global.get(), variant);
+  }
+
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookingChanged(BookingChangedEvent event) {
+    long version = global.incrementAndGet();
+    properties.asMap().merge(event.propertyId(), version, Math::max);
+  }
+
+  private String tag(long version, String variant) {
+    long window = System.currentTimeMillis() / maxAgeMillis;
+    return "\"" + epoch + "-" + window + "-" + version + "-" + variant + "\"";
+  }
+}
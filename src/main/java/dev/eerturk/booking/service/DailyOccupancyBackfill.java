@@ -0,0 +1,124 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.dao.BookingDateRepository;
+import dev.eerturk.booking.dao.BookingRepository;
+import dev.eerturk.booking.dao.StorageModeRepository;
+import dev.eerturk.booking.model.Booking;
+import dev.eerturk.booking.model.Status;
+import dev.eerturk.booking.model.StorageMode;
+import java.time.LocalDate;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "booking.storage.mode", havingValue = "daily", matchIfMissing = true)
+public class DailyOccupancyBackfill implements ApplicationRunner {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DailyOccupancyBackfill.class);
+
+  private final BookingRepository repository;
+  private final BookingDateRepository bookingDateRepository;
+  private final StorageModeRepository storageModeRepository;
+  private final OccupancyStore occupancyStore;
+  private final ShardRouter shardRouter;
+  private final BackfillProperties properties;
+  private final TransactionTemplate transactionTemplate;
+
+  public DailyOccupancyBackfill(
+      BookingRepository repository,
+      BookingDateRepository bookingDateRepository,
+      StorageModeRepository storageModeRepository,
+      OccupancyStore occupancyStore,
+      ShardRouter shardRouter,
+      BackfillProperties properties,
+      PlatformTransactionManager transactionManager) {
+    this.repository = repository;
+    this.bookingDateRepository = bookingDateRepository;
+    this.storageModeRepository = storageModeRepository;
+    this.occupancyStore = occupancyStore;
+    this.shardRouter = shardRouter;
+    this.properties = properties;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!properties.enabled()) {
+      return;
+    }
+    LocalDate from = LocalDate.now();
+    for (int shard = 0; shard < shardRouter.shards(); shard++) {
+      if (switchedToDaily(shard)) {
+        long total = backfill(shard, from);
+        shardRouter.onShard(
+            shard, () -> storageModeRepository.save(StorageMode.of(StorageMode.DAILY)));
+        LOGGER.info(
+            "Backfilled booking dates for {} bookings on shard {} after switching to daily mode",
+            total,
+            shard);
+      }
+    }
+  }
+
+  public long backfill(LocalDate from) {
+    long total = 0;
+    for (int shard = 0; shard < shardRouter.shards(); shard++) {
+      total += backfill(shard, from);
+    }
+    return total;
+  }
+
+  private boolean switchedToDaily(int shard) {
+    return shardRouter.onShard(
+        shard,
+        () ->
+            storageModeRepository
+                .findById(StorageMode.CURRENT)
+                .filter(recorded -> StorageMode.DAILY.equals(recorded.getMode()))
+                .isEmpty());
+  }
+
+  private long backfill(int shard, LocalDate from) {
+    int released =
+        shardRouter.onShard(
+            shard,
+            () ->
+                transactionTemplate.execute(
+                    status -> bookingDateRepository.deleteByBookingStatusNot(Status.ACTIVE)));
+    if (released > 0) {
+      LOGGER.info("Released {} booking dates of bookings that are no longer active", released);
+    }
+    long total = 0;
+    long after = 0;
+    for (List<Booking> batch = occupy(shard, after, from);
+        !batch.isEmpty();
+        batch = occupy(shard, after, from)) {
+      after = batch.get(batch.size() - 1).getId();
+      total += batch.size();
+    }
+    return total;
+  }
+
+  private List<Booking> occupy(int shard, long after, LocalDate from) {
+    return shardRouter.onShard(
+        shard,
+        () ->
+            transactionTemplate.execute(
+                status -> {
+                  List<Booking> batch =
+                      repository.findAllWithoutDates(
+                          after, Status.ACTIVE, from, PageRequest.ofSize(properties.batchSize()));
+                  occupancyStore.occupyAll(batch);
+                  return batch;
+                }));
+  }
+}
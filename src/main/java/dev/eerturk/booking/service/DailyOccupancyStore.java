@@ -0,0 +1,79 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.dao.BookingDateRepository;
+import dev.eerturk.booking.dto.OccupiedRange;
+import dev.eerturk.booking.dto.PropertyOccupancy;
+import dev.eerturk.booking.model.Booking;
+import dev.eerturk.booking.model.BookingDate;
+import dev.eerturk.booking.model.BookingType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "booking.storage.mode", havingValue = "daily", matchIfMissing = true)
+public class DailyOccupancyStore implements OccupancyStore {
+  private final BookingDateRepository bookingDateRepository;
+
+  public DailyOccupancyStore(BookingDateRepository bookingDateRepository) {
+    this.bookingDateRepository = bookingDateRepository;
+  }
+
+  @Override
+  public boolean existsReservation(Long propertyId, LocalDate startDate, LocalDate endDate) {
+    return bookingDateRepository.existsByPropertyIdAndBookingTypeAndDateBetween(
+        propertyId, BookingType.RESERVATION, startDate, endDate);
+  }
+
+  @Override
+  public boolean existsAny(Long propertyId, LocalDate startDate, LocalDate endDate) {
+    return bookingDateRepository.existsByPropertyIdAndDateBetween(propertyId, startDate, endDate);
+  }
+
+  @Override
+  public List<OccupiedRange> findOccupiedRanges(Long propertyId, LocalDate from) {
+    return bookingDateRepository.findOccupiedRanges(propertyId, from);
+  }
+
+  @Override
+  public List<OccupiedRange> findOccupiedRanges(Long propertyId, LocalDate from, LocalDate to) {
+    return bookingDateRepository.findOccupiedRanges(propertyId, from, to);
+  }
+
+  @Override
+  public List<Long> findOccupiedPropertyIds(LocalDate from) {
+    return bookingDateRepository.findOccupiedPropertyIds(from);
+  }
+
+  @Override
+  public List<PropertyOccupancy> findOccupancies(Collection<Long> propertyIds, LocalDate from) {
+    return bookingDateRepository.findOccupancies(propertyIds, from);
+  }
+
+  @Override
+  public void occupy(Booking booking) {
+    booking.initDates();
+  }
+
+  @Override
+  public void release(Booking booking) {
+    booking.deleteDates();
+  }
+
+  @Override
+  public void occupyAll(Collection<Booking> bookings) {
+    List<BookingDate> dates = new ArrayList<>();
+    for (Booking booking : bookings) {
+      dates.addAll(booking.newDates());
+    }
+    bookingDateRepository.saveAll(dates);
+  }
+
+  @Override
+  public void releaseAll(Collection<Long> bookingIds) {
+    bookingDateRepository.deleteByBookingIds(bookingIds);
+  }
+}
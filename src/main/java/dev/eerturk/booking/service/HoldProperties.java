@@ -0,0 +1,11 @@
+package dev.eerturk.booking.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.holds")
+public record HoldProperties(
+    @DefaultValue("10m") Duration ttl,
+    @DefaultValue("1s") Duration tick,
+    @DefaultValue("1024") int wheelSize) {}
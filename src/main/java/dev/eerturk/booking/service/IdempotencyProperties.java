@@ -0,0 +1,12 @@
+package dev.eerturk.booking.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.idempotency")
+public record IdempotencyProperties(
+    @DefaultValue("10000") long maximumSize,
+    @DefaultValue("24h") Duration expireAfterWrite,
+    @DefaultValue("PT1H") Duration purgeInterval,
+    @DefaultValue("255") int maximumKeyLength) {}
@@ -0,0 +1,134 @@
+package dev.eerturk.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.eerturk.booking.InvalidIdempotencyKeyException;
+import dev.eerturk.booking.dao.DataSourceRoute;
+import dev.eerturk.booking.dao.IdempotencyRecordRepository;
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.model.IdempotencyRecord;
+import dev.eerturk.booking.web.CreateBookingRequest;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class IdempotentBookingService {
+  private final BookingService bookingService;
+  private final IdempotencyRecordRepository repository;
+  private final IdempotencyProperties properties;
+  private final ShardRouter shardRouter;
+  private final TransactionTemplate transactionTemplate;
+  private final Cache<String, BookingDetailResponse> completed;
+  private final ConcurrentMap<String, CompletableFuture<BookingDetailResponse>> inFlight =
+      new ConcurrentHashMap<>();
+
+  public IdempotentBookingService(
+      BookingService bookingService,
+      IdempotencyRecordRepository repository,
+      IdempotencyProperties properties,
+      ShardRouter shardRouter,
+      PlatformTransactionManager transactionManager) {
+    this.bookingService = bookingService;
+    this.repository = repository;
+    this.properties = properties;
+    this.shardRouter = shardRouter;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.completed =
+        Caffeine.newBuilder()
+            .maximumSize(properties.maximumSize())
+            .expireAfterWrite(properties.expireAfterWrite())
+            .build();
+  }
+
+  public BookingDetailResponse create(String key, CreateBookingRequest command) {
+    if (key.isBlank() || key.length() > properties.maximumKeyLength()) {
+      throw new InvalidIdempotencyKeyException(
+          "The idempotency key must contain 1 to "
+              + properties.maximumKeyLength()
+              + " characters.");
+    }
+    BookingDetailResponse response = completed.getIfPresent(key);
+    if (response != null) {
+      return verify(key, command, response);
+    }
+    CompletableFuture<BookingDetailResponse> execution = new CompletableFuture<>();
+    CompletableFuture<BookingDetailResponse> existing = inFlight.putIfAbsent(key, execution);
+    if (existing != null) {
+      return verify(key, command, await(existing));
+    }
+    try {
+      response =
+          shardRouter.onProperty(
+              command.propertyId(), () -> stored(key).orElseGet(() -> execute(key, command)));
+      completed.put(key, response);
+      execution.complete(response);
+    } catch (RuntimeException e) {
+      execution.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, execution);
+    }
+    return verify(key, command, response);
+  }
+
+  @Scheduled(fixedDelayString = "${booking.idempotency.purge-interval:PT1H}")
+  public void purgeExpired() {
+    Instant expiredBefore = Instant.now().minus(properties.expireAfterWrite());
+    shardRouter.onEveryShard(() -> repository.deleteCreatedBefore(expiredBefore));
+  }
+
+  private BookingDetailResponse execute(String key, CreateBookingRequest command) {
+    try {
+      return transactionTemplate.execute(
+          status -> {
+            BookingDetailResponse created = bookingService.create(command);
+            repository.save(IdempotencyRecord.of(key, created, Instant.now()));
+            return created;
+          });
+    } catch (DataIntegrityViolationException e) {
+      return stored(key).orElseThrow(() -> e);
+    }
+  }
+
+  private Optional<BookingDetailResponse> stored(String key) {
+    Instant expiredBefore = Instant.now().minus(properties.expireAfterWrite());
+    return DataSourceRoute.onPrimary(() -> repository.findById(key))
+        .filter(record -> record.getCreatedAt().isAfter(expiredBefore))
+        .map(IdempotencyRecord::toResponse);
+  }
+
+  private static BookingDetailResponse await(CompletableFuture<BookingDetailResponse> execution) {
+    try {
+      return execution.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private static BookingDetailResponse verify(
+      String key, CreateBookingRequest command, BookingDetailResponse response) {
+    boolean matches =
+        Objects.equals(command.propertyId(), response.propertyId())
+            && Objects.equals(command.startDate(), response.startDate())
+            && Objects.equals(command.endDate(), response.endDate())
+            && Objects.equals(command.guestId(), response.guestId());
+    if (!matches) {
+      throw new InvalidIdempotencyKeyException(
+          "The idempotency key " + key + " was already used for a different booking.");
+    }
+    return response;
+  }
+}
@@ -0,0 +1,29 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.dao.StorageModeRepository;
+import dev.eerturk.booking.model.StorageMode;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "booking.storage.mode", havingValue = "interval")
+public class IntervalModeRecorder implements ApplicationRunner {
+  private final StorageModeRepository storageModeRepository;
+  private final ShardRouter shardRouter;
+
+  public IntervalModeRecorder(
+      StorageModeRepository storageModeRepository, ShardRouter shardRouter) {
+    this.storageModeRepository = storageModeRepository;
+    this.shardRouter = shardRouter;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    shardRouter.onEveryShard(
+        () -> storageModeRepository.save(StorageMode.of(StorageMode.INTERVAL)));
+  }
+}
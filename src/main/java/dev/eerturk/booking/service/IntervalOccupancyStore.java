@@ -0,0 +1,65 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.dao.BookingRepository;
+import dev.eerturk.booking.dto.OccupiedRange;
+import dev.eerturk.booking.dto.PropertyOccupancy;
+import dev.eerturk.booking.model.Booking;
+import dev.eerturk.booking.model.BookingType;
+import dev.eerturk.booking.model.Status;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "booking.storage.mode", havingValue = "interval")
+public class IntervalOccupancyStore implements OccupancyStore {
+  private final BookingRepository repository;
+
+  public IntervalOccupancyStore(BookingRepository repository) {
+    this.repository = repository;
+  }
+
+  @Override
+  public boolean existsReservation(Long propertyId, LocalDate startDate, LocalDate endDate) {
+    return repository.existsOverlapping(propertyId, BookingType.RESERVATION, startDate, endDate);
+  }
+
+  @Override
+  public boolean existsAny(Long propertyId, LocalDate startDate, LocalDate endDate) {
+    return repository.existsOverlapping(propertyId, startDate, endDate);
+  }
+
+  @Override
+  public List<OccupiedRange> findOccupiedRanges(Long propertyId, LocalDate from) {
+    return repository.findOccupiedRanges(propertyId, Status.ACTIVE, from);
+  }
+
+  @Override
+  public List<OccupiedRange> findOccupiedRanges(Long propertyId, LocalDate from, LocalDate to) {
+    return repository.findOccupiedRanges(propertyId, Status.ACTIVE, from, to);
+  }
+
+  @Override
+  public List<Long> findOccupiedPropertyIds(LocalDate from) {
+    return repository.findOccupiedPropertyIds(Status.ACTIVE, from);
+  }
+
+  @Override
+  public List<PropertyOccupancy> findOccupancies(Collection<Long> propertyIds, LocalDate from) {
+    return repository.findOccupancies(propertyIds, Status.ACTIVE, from);
+  }
+
+  @Override
+  public void occupy(Booking booking) {}
+
+  @Override
+  public void release(Booking booking) {}
+
+  @Override
+  public void occupyAll(Collection<Booking> bookings) {}
+
+  @Override
+  public void releaseAll(Collection<Long> bookingIds) {}
+}
@@ -0,0 +1,7 @@
+package dev.eerturk.booking.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.locking")
+public record LockingProperties(@DefaultValue("256") int stripes) {}
@@ -0,0 +1,30 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.dto.OccupiedRange;
+import dev.eerturk.booking.dto.PropertyOccupancy;
+import dev.eerturk.booking.model.Booking;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface OccupancyStore {
+  boolean existsReservation(Long propertyId, LocalDate startDate, LocalDate endDate);
+
+  boolean existsAny(Long propertyId, LocalDate startDate, LocalDate endDate);
+
+  List<OccupiedRange> findOccupiedRanges(Long propertyId, LocalDate from);
+
+  List<OccupiedRange> findOccupiedRanges(Long propertyId, LocalDate from, LocalDate to);
+
+  List<Long> findOccupiedPropertyIds(LocalDate from);
+
+  List<PropertyOccupancy> findOccupancies(Collection<Long> propertyIds, LocalDate from);
+
+  void occupy(Booking booking);
+
+  void release(Booking booking);
+
+  void occupyAll(Collection<Booking> bookings);
+
+  void releaseAll(Collection<Long> bookingIds);
+}
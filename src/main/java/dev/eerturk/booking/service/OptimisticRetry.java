@@ -0,0 +1,80 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.BookingConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OptimisticRetry {
+  private final RetryProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final ConcurrentMap<CounterKey, Counter> counters = new ConcurrentHashMap<>();
+
+  public OptimisticRetry(RetryProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+  }
+
+  public void run(String operation, Long bookingId, Runnable attempt) {
+    call(
+        operation,
+        bookingId,
+        () -> {
+          attempt.run();
+          return null;
+        });
+  }
+
+  public <T> T call(String operation, Long bookingId, Supplier<T> attempt) {
+    for (int attempts = 1; ; attempts++) {
+      try {
+        return attempt.get();
+      } catch (OptimisticLockingFailureException e) {
+        if (attempts >= properties.maxAttempts()) {
+          count(operation, "exhausted");
+          throw new BookingConflictException(bookingId);
+        }
+        count(operation, "retried");
+        backoff(attempts, bookingId);
+      }
+    }
+  }
+
+  private void backoff(int attempts, Long bookingId) {
+    long ceiling =
+        Math.min(
+            properties.maxBackoff().toNanos(),
+            properties.backoff().toNanos() << Math.min(attempts - 1, 20));
+    if (ceiling <= 0) {
+      return;
+    }
+    try {
+      TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BookingConflictException(bookingId);
+    }
+  }
+
+  private void count(String operation, String outcome) {
+    counters
+        .computeIfAbsent(
+            new CounterKey(operation, outcome),
+            key ->
+                Counter.builder("booking.retries")
+                    .description("Optimistic locking conflicts on booking updates")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry))
+        .increment();
+  }
+
+  private record CounterKey(String operation, String outcome) {}
+}
@@ -0,0 +1,29 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.model.Booking;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class PendingOccupancy {
+  private final Map<Long, List<Booking>> bookingsByProperty = new HashMap<>();
+
+  boolean conflicts(Booking booking) {
+    for (Booking other : bookingsByProperty.getOrDefault(booking.getPropertyId(), List.of())) {
+      boolean overlaps =
+          !other.getStartDate().isAfter(booking.getEndDate())
+              && !other.getEndDate().isBefore(booking.getStartDate());
+      if (overlaps && !(booking.isBlock() && other.isBlock())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  void add(Booking booking) {
+    bookingsByProperty
+        .computeIfAbsent(booking.getPropertyId(), key -> new ArrayList<>())
+        .add(booking);
+  }
+}
@@ -0,0 +1,54 @@
+package dev.eerturk.booking.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class PropertyLocks {
+  private final ReentrantLock[] stripes;
+
+  public PropertyLocks(LockingProperties properties) {
+    this.stripes =
+        IntStream.range(0, properties.stripes())
+            .mapToObj(i -> new ReentrantLock())
+            .toArray(ReentrantLock[]::new);
+  }
+
+  public void lockUntilCompletion(Long propertyId) {
+    lockUntilCompletion(List.of(propertyId));
+  }
+
+  public void lockUntilCompletion(Collection<Long> propertyIds) {
+    int[] indexes = propertyIds.stream().mapToInt(this::stripe).distinct().sorted().toArray();
+    for (int index : indexes) {
+      ReentrantLock lock = stripes[index];
+      lock.lock();
+      if (TransactionSynchronizationManager.isSynchronizationActive()) {
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+              @Override
+              public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+              }
+
+              @Override
+              public void afterCompletion(int status) {
+                lock.unlock();
+              }
+            });
+      } else {
+        lock.unlock();
+      }
+    }
+  }
+
+  private int stripe(Long propertyId) {
+    return Math.floorMod(Long.hashCode(propertyId) * 0x9E3779B9, stripes.length);
+  }
+}
@@ -0,0 +1,12 @@
+package dev.eerturk.booking.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.windows")
+public record PropertyWindowProperties(
+    @DefaultValue("10000") long maximumSize,
+    @DefaultValue("1h") Duration expireAfterWrite,
+    @DefaultValue("366") int maximumNights,
+    @DefaultValue("366") int maximumDays) {}
@@ -0,0 +1,144 @@
+package dev.eerturk.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.eerturk.booking.InvalidDateRangeException;
+import dev.eerturk.booking.dto.AvailabilityWindow;
+import dev.eerturk.booking.dto.OccupiedRange;
+import dev.eerturk.booking.event.BookingChangedEvent;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class PropertyWindows {
+  private final OccupancyStore occupancyStore;
+  private final ShardRouter shardRouter;
+  private final PropertyWindowProperties properties;
+  private final Cache<Long, Intervals> cache;
+
+  public PropertyWindows(
+      OccupancyStore occupancyStore, ShardRouter shardRouter, PropertyWindowProperties properties) {
+    this.occupancyStore = occupancyStore;
+    this.shardRouter = shardRouter;
+    this.properties = properties;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(properties.maximumSize())
+            .expireAfterWrite(properties.expireAfterWrite())
+            .build();
+  }
+
+  public AvailabilityWindow nextWindow(Long propertyId, LocalDate after, int nights) {
+    if (nights < 1 || nights > properties.maximumNights()) {
+      throw new InvalidDateRangeException(after, after.plusDays(nights - 1));
+    }
+    Intervals intervals = cache.get(propertyId, this::load);
+    long start = intervals.nextWindow(Math.max(after.toEpochDay(), today()), nights);
+    return new AvailabilityWindow(
+        LocalDate.ofEpochDay(start), LocalDate.ofEpochDay(start + nights - 1), nights);
+  }
+
+  public List<AvailabilityWindow> gaps(
+      Long propertyId, LocalDate from, LocalDate to, int shorterThan) {
+    if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= properties.maximumDays()) {
+      throw new InvalidDateRangeException(from, to);
+    }
+    Intervals intervals = cache.get(propertyId, this::load);
+    return intervals.gaps(Math.max(from.toEpochDay(), today()), to.toEpochDay(), shorterThan);
+  }
+
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookingChanged(BookingChangedEvent event) {
+    cache.invalidate(event.propertyId());
+  }
+
+  public long size() {
+    cache.cleanUp();
+    return cache.estimatedSize();
+  }
+
+  private Intervals load(Long propertyId) {
+    LocalDate from = LocalDate.now();
+    return Intervals.of(
+        shardRouter.onProperty(
+            propertyId, () -> occupancyStore.findOccupiedRanges(propertyId, from)));
+  }
+
+  private static long today() {
+    return LocalDate.now().toEpochDay();
+  }
+
+  private static final class Intervals {
+    private final NavigableMap<Long, Long> occupied;
+
+    private Intervals(NavigableMap<Long, Long> occupied) {
+      this.occupied = occupied;
+    }
+
+    static Intervals of(List<OccupiedRange> ranges) {
+      List<OccupiedRange> sorted = new ArrayList<>(ranges);
+      sorted.sort(Comparator.comparing(OccupiedRange::startDate));
+      NavigableMap<Long, Long> occupied = new TreeMap<>();
+      Map.Entry<Long, Long> last = null;
+      for (OccupiedRange range : sorted) {
+        long start = range.startDate().toEpochDay();
+        long end = range.endDate().toEpochDay();
+        if (last != null && start <= last.getValue() + 1) {
+          if (end > last.getValue()) {
+            occupied.put(last.getKey(), end);
+          }
+        } else {
+          occupied.put(start, end);
+        }
+        last = occupied.lastEntry();
+      }
+      return new Intervals(occupied);
+    }
+
+    long nextWindow(long after, int nights) {
+      long cursor = after;
+      Map.Entry<Long, Long> covering = occupied.floorEntry(cursor);
+      if (covering != null && covering.getValue() >= cursor) {
+        cursor = covering.getValue() + 1;
+      }
+      for (Map.Entry<Long, Long> interval : occupied.tailMap(cursor, true).entrySet()) {
+        if (interval.getKey() - cursor >= nights) {
+          return cursor;
+        }
+        cursor = interval.getValue() + 1;
+      }
+      return cursor;
+    }
+
+    List<AvailabilityWindow> gaps(long from, long to, int shorterThan) {
+      List<AvailabilityWindow> gaps = new ArrayList<>();
+      Long first = occupied.floorKey(from);
+      Long previousEnd = first != null ? occupied.get(first) : null;
+      for (Map.Entry<Long, Long> interval : occupied.subMap(from, false, to + 1, true).entrySet()) {
+        if (previousEnd != null && previousEnd + 1 >= from) {
+          long nights = interval.getKey() - previousEnd - 1;
+          if (nights < shorterThan) {
+            gaps.add(
+                new AvailabilityWindow(
+                    LocalDate.ofEpochDay(previousEnd + 1),
+                    LocalDate.ofEpochDay(interval.getKey() - 1),
+                    (int) nights));
+          }
+        }
+        previousEnd = interval.getValue();
+      }
+      return gaps;
+    }
+  }
+}
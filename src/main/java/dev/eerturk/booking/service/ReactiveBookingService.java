@@ -0,0 +1,209 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.BookingIsNotDeleteAbleException;
+import dev.eerturk.booking.BookingNotFoundException;
+import dev.eerturk.booking.ReservationAlreadyExistsException;
+import dev.eerturk.booking.dao.ReactiveBookingDateRepository;
+import dev.eerturk.booking.dao.ReactiveBookingRepository;
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.event.BookingChangedEvent;
+import dev.eerturk.booking.event.ChangeType;
+import dev.eerturk.booking.model.BookingDateRecord;
+import dev.eerturk.booking.model.BookingRecord;
+import dev.eerturk.booking.model.BookingType;
+import dev.eerturk.booking.model.Status;
+import dev.eerturk.booking.web.CreateBookingRequest;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingService {
+  private static final int ID_BLOCK_SIZE = 50;
+
+  private final ReactiveBookingRepository repository;
+  private final ReactiveBookingDateRepository bookingDateRepository;
+  private final R2dbcEntityTemplate template;
+  private final ReactivePropertyLocks propertyLocks;
+  private final TransactionalOperator transactionalOperator;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public ReactiveBookingService(
+      ReactiveBookingRepository repository,
+      ReactiveBookingDateRepository bookingDateRepository,
+      R2dbcEntityTemplate template,
+      ReactivePropertyLocks propertyLocks,
+      TransactionalOperator transactionalOperator,
+      ApplicationEventPublisher eventPublisher) {
+    this.repository = repository;
+    this.bookingDateRepository = bookingDateRepository;
+    this.template = template;
+    this.propertyLocks = propertyLocks;
+    this.transactionalOperator = transactionalOperator;
+    this.eventPublisher = eventPublisher;
+  }
+
+  public Flux<BookingDetailResponse> findAll(long after) {
+    return repository.findAllAfter(after).map(ReactiveBookingService::toResponse);
+  }
+
+  public Mono<BookingDetailResponse> create(CreateBookingRequest command) {
+    BookingRecord booking = newBooking(command);
+    Mono<BookingRecord> created =
+        validateBookingDates(booking)
+            .then(repository.nextId())
+            .flatMap(id -> template.insert(booking.setId(id)))
+            .flatMap(this::insertDates);
+    return publish(
+            ChangeType.CREATED,
+            propertyLocks.withLock(booking.getPropertyId(), inTransaction(booking, created)))
+        .map(ReactiveBookingService::toResponse);
+  }
+
+  public Mono<Void> delete(Long id) {
+    Mono<BookingRecord> deleted =
+        repository
+            .findById(id)
+            .switchIfEmpty(Mono.error(() -> new BookingNotFoundException(id)))
+            .flatMap(
+                booking -> {
+                  if (!booking.isBlock()) {
+                    return Mono.error(new BookingIsNotDeleteAbleException(id));
+                  }
+                  return bookingDateRepository
+                      .deleteByBookingId(id)
+                      .then(repository.delete(booking))
+                      .thenReturn(booking);
+                });
+    return publish(ChangeType.DELETED, transactionalOperator.transactional(deleted)).then();
+  }
+
+  public Mono<Void> cancel(Long id) {
+    Mono<BookingRecord> cancelled =
+        getBookingBy(id, Status.ACTIVE)
+            .flatMap(
+                booking ->
+                    bookingDateRepository
+                        .deleteByBookingId(id)
+                        .then(repository.save(booking.setStatus(Status.CANCEL))));
+    return publish(ChangeType.CANCELLED, transactionalOperator.transactional(cancelled)).then();
+  }
+
+  public Mono<Void> rebook(Long id) {
+    Mono<BookingRecord> rebooked =
+        getBookingBy(id, Status.CANCEL)
+            .flatMap(
+                booking ->
+                    propertyLocks.withLock(
+                        booking.getPropertyId(),
+                        inTransaction(
+                            booking,
+                            validateBookingDates(booking)
+                                .then(repository.save(booking.setStatus(Status.ACTIVE)))
+                                .flatMap(this::insertDates))));
+    return publish(ChangeType.REBOOKED, rebooked).then();
+  }
+
+  private Mono<BookingRecord> publish(ChangeType type, Mono<BookingRecord> committed) {
+    return committed
+        .publishOn(Schedulers.boundedElastic())
+        .doOnNext(booking -> eventPublisher.publishEvent(BookingChangedEvent.of(type, booking)));
+  }
+
+  private <T> Mono<T> inTransaction(BookingRecord booking, Mono<T> work) {
+    return transactionalOperator
+        .transactional(work)
+        .onErrorMap(
+            DataIntegrityViolationException.class,
+            e ->
+                new ReservationAlreadyExistsException(
+                    booking.getStartDate(), booking.getEndDate(), booking.getPropertyId()));
+  }
+
+  private Mono<BookingRecord> getBookingBy(Long id, Status status) {
+    return repository
+        .findByIdAndStatus(id, status)
+        .switchIfEmpty(Mono.error(() -> new BookingNotFoundException(id)));
+  }
+
+  private Mono<Void> validateBookingDates(BookingRecord booking) {
+    Mono<Boolean> occupied =
+        booking.isBlock()
+            ? bookingDateRepository.existsByPropertyIdAndBookingTypeAndDateBetween(
+                booking.getPropertyId(),
+                BookingType.RESERVATION,
+                booking.getStartDate(),
+                booking.getEndDate())
+            : bookingDateRepository.existsByPropertyIdAndDateBetween(
+                booking.getPropertyId(), booking.getStartDate(), booking.getEndDate());
+    return occupied.flatMap(
+        conflict ->
+            conflict
+                ? Mono.error(
+                    new ReservationAlreadyExistsException(
+                        booking.getStartDate(), booking.getEndDate(), booking.getPropertyId()))
+                : Mono.empty());
+  }
+
+  private Mono<BookingRecord> insertDates(BookingRecord booking) {
+    List<LocalDate> dates =
+        booking.getStartDate().datesUntil(booking.getEndDate().plusDays(1)).toList();
+    return nextDateIds(dates.size())
+        .zipWithIterable(dates)
+        .concatMap(
+            idAndDate ->
+                template.insert(
+                    new BookingDateRecord(
+                        idAndDate.getT1(),
+                        idAndDate.getT2(),
+                        booking.getPropertyId(),
+                        booking.getId(),
+                        booking.getBookingType(),
+                        booking.isBlock() ? null : idAndDate.getT2())))
+        .then(Mono.just(booking));
+  }
+
+  private Flux<Long> nextDateIds(int count) {
+    if (count <= 0) {
+      return Flux.empty();
+    }
+    return bookingDateRepository
+        .nextIdBlock()
+        .flatMapMany(
+            last -> {
+              long first = Math.max(1, last - ID_BLOCK_SIZE + 1);
+              int size = (int) Math.min(count, last - first + 1);
+              return Flux.concat(
+                  Flux.range(0, size).map(offset -> first + offset), nextDateIds(count - size));
+            });
+  }
+
+  private static BookingRecord newBooking(CreateBookingRequest command) {
+    return new BookingRecord()
+        .setStatus(Status.ACTIVE)
+        .setStartDate(command.startDate())
+        .setEndDate(command.endDate())
+        .setGuestId(command.guestId())
+        .setPropertyId(command.propertyId())
+        .setBookingType(command.guestId() != null ? BookingType.RESERVATION : BookingType.BLOCK);
+  }
+
+  private static BookingDetailResponse toResponse(BookingRecord booking) {
+    return new BookingDetailResponse(
+        booking.getId(),
+        booking.getPropertyId(),
+        booking.getStartDate(),
+        booking.getEndDate(),
+        booking.getGuestId(),
+        booking.getStatus());
+  }
+}
@@ -0,0 +1,46 @@
+package dev.eerturk.booking.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePropertyLocks {
+  private final AtomicReference<CompletableFuture<Void>>[] tails;
+
+  @SuppressWarnings("unchecked")
+  public ReactivePropertyLocks(LockingProperties properties) {
+    this.tails =
+        IntStream.range(0, properties.stripes())
+            .mapToObj(i -> new AtomicReference<>(CompletableFuture.<Void>completedFuture(null)))
+            .toArray(AtomicReference[]::new);
+  }
+
+  public <T> Mono<T> withLock(Long propertyId, Mono<T> work) {
+    return Mono.defer(
+        () -> {
+          CompletableFuture<Void> released = new CompletableFuture<>();
+          CompletableFuture<Void> previous = tails[stripe(propertyId)].getAndSet(released);
+          AtomicBoolean started = new AtomicBoolean();
+          return Mono.fromFuture(previous, true)
+              .then(Mono.defer(() -> started.compareAndSet(false, true) ? work : Mono.empty()))
+              .doFinally(
+                  signal -> {
+                    if (started.getAndSet(true)) {
+                      released.complete(null);
+                    } else {
+                      previous.whenComplete((ignored, e) -> released.complete(null));
+                    }
+                  });
+        });
+  }
+
+  private int stripe(Long propertyId) {
+    return Math.floorMod(Long.hashCode(propertyId) * 0x9E3779B9, tails.length);
+  }
+}
@@ -0,0 +1,11 @@
+package dev.eerturk.booking.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.retry")
+public record RetryProperties(
+    @DefaultValue("4") int maxAttempts,
+    @DefaultValue("5ms") Duration backoff,
+    @DefaultValue("50ms") Duration maxBackoff) {}
@@ -0,0 +1,64 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.dao.ArchivedBookingRepository;
+import dev.eerturk.booking.dao.BookingRepository;
+import dev.eerturk.booking.dao.ShardLayoutRepository;
+import dev.eerturk.booking.model.ShardLayout;
+import java.time.Instant;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ShardLayoutVerifier implements ApplicationRunner {
+  private final ShardLayoutRepository shardLayoutRepository;
+  private final BookingRepository bookingRepository;
+  private final ArchivedBookingRepository archivedBookingRepository;
+  private final ShardRouter shardRouter;
+
+  public ShardLayoutVerifier(
+      ShardLayoutRepository shardLayoutRepository,
+      BookingRepository bookingRepository,
+      ArchivedBookingRepository archivedBookingRepository,
+      ShardRouter shardRouter) {
+    this.shardLayoutRepository = shardLayoutRepository;
+    this.bookingRepository = bookingRepository;
+    this.archivedBookingRepository = archivedBookingRepository;
+    this.shardRouter = shardRouter;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    verify();
+  }
+
+  public void verify() {
+    String layout = shardRouter.layout();
+    ShardLayout recorded = shardLayoutRepository.findById(ShardLayout.CURRENT).orElse(null);
+    if (recorded != null && recorded.getLayout().equals(layout)) {
+      return;
+    }
+    if (recorded != null && hasBookings()) {
+      throw new IllegalStateException(
+          "The shard layout changed from ["
+              + recorded.getLayout()
+              + "] to ["
+              + layout
+              + "] while bookings exist. Properties would move to shards that do not hold their"
+              + " rows and bookings created under the old layout would be routed by the wrong"
+              + " shard id. Migrate the data to the new layout before starting with it.");
+    }
+    shardLayoutRepository.save(new ShardLayout(ShardLayout.CURRENT, layout, Instant.now()));
+  }
+
+  private boolean hasBookings() {
+    return shardRouter
+        .onEveryShard(() -> bookingRepository.count() > 0 || archivedBookingRepository.count() > 0)
+        .contains(true);
+  }
+}
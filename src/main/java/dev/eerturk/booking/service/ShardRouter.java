@@ -0,0 +1,118 @@
+package dev.eerturk.booking.service;
+
+import dev.eerturk.booking.dao.ShardContext;
+import dev.eerturk.booking.dao.ShardingProperties;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ShardRouter {
+  private final ShardingProperties properties;
+  private final int shards;
+  private final NavigableMap<Long, Integer> ring = new TreeMap<>();
+
+  public ShardRouter(ShardingProperties properties) {
+    this.properties = properties;
+    this.shards = properties.count();
+    if (shards > ShardContext.SLOTS) {
+      throw new IllegalStateException(
+          "At most " + ShardContext.SLOTS + " shards are supported, found " + shards + ".");
+    }
+    properties
+        .pinned()
+        .forEach(
+            (propertyId, shard) -> {
+              if (shard < 0 || shard >= shards) {
+                throw new IllegalStateException(
+                    "Property " + propertyId + " is pinned to unknown shard " + shard + ".");
+              }
+            });
+    for (int shard = 0; shard < shards; shard++) {
+      for (int node = 0; node < properties.virtualNodes(); node++) {
+        ring.put(mix(((long) shard << 32) | node), shard);
+      }
+    }
+  }
+
+  public int shards() {
+    return shards;
+  }
+
+  public String layout() {
+    if (shards == 1) {
+      return "shards=1";
+    }
+    return "shards="
+        + shards
+        + ";virtual-nodes="
+        + properties.virtualNodes()
+        + ";pinned="
+        + new TreeMap<>(properties.pinned());
+  }
+
+  public int shardFor(Long propertyId) {
+    if (shards == 1) {
+      return 0;
+    }
+    Integer pinned = properties.pinned().get(propertyId);
+    if (pinned != null) {
+      return pinned;
+    }
+    Map.Entry<Long, Integer> node = ring.ceilingEntry(mix(propertyId));
+    return (node != null ? node : ring.firstEntry()).getValue();
+  }
+
+  public int shardOfBooking(Long id) {
+    return shards == 1 ? 0 : ShardContext.shardOf(id) % shards;
+  }
+
+  public <T> T onShard(int shard, Supplier<T> supplier) {
+    return shards == 1 ? supplier.get() : ShardContext.on(shard, supplier);
+  }
+
+  public <T> T onProperty(Long propertyId, Supplier<T> supplier) {
+    return onShard(shardFor(propertyId), supplier);
+  }
+
+  public <T> T onBooking(Long id, Supplier<T> supplier) {
+    return onShard(shardOfBooking(id), supplier);
+  }
+
+  public void runOnBooking(Long id, Runnable runnable) {
+    onBooking(
+        id,
+        () -> {
+          runnable.run();
+          return null;
+        });
+  }
+
+  public <T> List<T> onEveryShard(Supplier<T> supplier) {
+    List<T> results = new ArrayList<>(shards);
+    for (int shard = 0; shard < shards; shard++) {
+      results.add(onShard(shard, supplier));
+    }
+    return results;
+  }
+
+  public <T> Map<Integer, List<T>> partition(Collection<T> items, ToIntFunction<T> shardOf) {
+    Map<Integer, List<T>> partitions = new TreeMap<>();
+    for (T item : items) {
+      partitions.computeIfAbsent(shardOf.applyAsInt(item), shard -> new ArrayList<>()).add(item);
+    }
+    return partitions;
+  }
+
+  private static long mix(long value) {
+    value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+    value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return value ^ (value >>> 33);
+  }
+}
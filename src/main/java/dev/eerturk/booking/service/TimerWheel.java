@@ -0,0 +1,52 @@
+package dev.eerturk.booking.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+final class TimerWheel<T> {
+  private final long origin;
+  private final long tickNanos;
+  private final List<List<Timeout<T>>> buckets;
+  private long tick;
+
+  TimerWheel(Duration tick, int size, long originNanos) {
+    this.origin = originNanos;
+    this.tickNanos = tick.toNanos();
+    this.buckets = new ArrayList<>(size);
+    for (int index = 0; index < size; index++) {
+      buckets.add(new ArrayList<>());
+    }
+  }
+
+  synchronized void schedule(T item, long deadlineNanos) {
+    long deadlineTick =
+        Math.max(tick, Math.floorDiv(deadlineNanos - origin + tickNanos - 1, tickNanos));
+    buckets.get(bucket(deadlineTick)).add(new Timeout<>(item, deadlineTick));
+  }
+
+  synchronized List<T> advance(long nowNanos) {
+    long target = Math.floorDiv(nowNanos - origin, tickNanos);
+    List<T> expired = new ArrayList<>();
+    long last = Math.min(target, tick + buckets.size() - 1);
+    for (long current = tick; current <= last; current++) {
+      Iterator<Timeout<T>> timeouts = buckets.get(bucket(current)).iterator();
+      while (timeouts.hasNext()) {
+        Timeout<T> timeout = timeouts.next();
+        if (timeout.tick() <= target) {
+          timeouts.remove();
+          expired.add(timeout.item());
+        }
+      }
+    }
+    tick = Math.max(tick, target + 1);
+    return expired;
+  }
+
+  private int bucket(long tick) {
+    return (int) Math.floorMod(tick, (long) buckets.size());
+  }
+
+  private record Timeout<T>(T item, long tick) {}
+}
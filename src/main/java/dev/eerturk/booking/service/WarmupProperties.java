@@ -0,0 +1,8 @@
+package dev.eerturk.booking.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.warmup")
+public record WarmupProperties(
+    @DefaultValue("true") boolean enabled, @DefaultValue("100") int iterations) {}
@@ -0,0 +1,12 @@
+package dev.eerturk.booking.web;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.Set;
+
+public record AvailabilitySearchRequest(
+    @NotNull(message = "The search start date must be defined.") LocalDate from,
+    @NotNull(message = "The search end date must be defined.") LocalDate to,
+    @Size(max = 50000, message = "At most 50000 property ids can be searched at once.")
+        Set<Long> propertyIds) {}
@@ -0,0 +1,62 @@
+package dev.eerturk.booking.web;
+
+import dev.eerturk.booking.ChangeCursorExpiredException;
+import dev.eerturk.booking.dto.BookingChange;
+import dev.eerturk.booking.service.BookingChangeFeed;
+import dev.eerturk.booking.service.ChangeFeedProperties;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("bookings/changes")
+public class BookingChangeController {
+  private final BookingChangeFeed bookingChangeFeed;
+  private final ChangeFeedProperties properties;
+
+  public BookingChangeController(
+      BookingChangeFeed bookingChangeFeed, ChangeFeedProperties properties) {
+    this.bookingChangeFeed = bookingChangeFeed;
+    this.properties = properties;
+  }
+
+  @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public Flux<ServerSentEvent<BookingChange>> stream(
+      @RequestParam(required = false) Long propertyId,
+      @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+      @RequestParam(required = false) Long after) {
+    Long cursor = lastEventId != null ? lastEventId : after;
+    Flux<ServerSentEvent<BookingChange>> changes =
+        bookingChangeFeed
+            .changes(propertyId, cursor)
+            .map(
+                change ->
+                    ServerSentEvent.builder(change)
+                        .id(Long.toString(change.sequence()))
+                        .event(change.type().name())
+                        .build());
+    if (cursor != null && !bookingChangeFeed.isResumable(cursor)) {
+      changes =
+          Flux.concat(
+              Flux.just(ServerSentEvent.<BookingChange>builder().event("reset").build()), changes);
+    }
+    Flux<ServerSentEvent<BookingChange>> heartbeats =
+        Flux.interval(properties.heartbeat())
+            .map(tick -> ServerSentEvent.<BookingChange>builder().comment("heartbeat").build());
+    return Flux.merge(changes, heartbeats);
+  }
+
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<BookingChange> ndjson(
+      @RequestParam(required = false) Long propertyId, @RequestParam(required = false) Long after) {
+    if (after != null && !bookingChangeFeed.isResumable(after)) {
+      throw new ChangeCursorExpiredException(after);
+    }
+    return bookingChangeFeed.changes(propertyId, after);
+  }
+}
@@ -1,30 +1,142 @@
 package dev.eerturk.booking.web;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.eerturk.booking.dto.BatchItemResult;
 import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.dto.BookingSearchCriteria;
+import dev.eerturk.booking.dto.BulkOperationResult;
 import dev.eerturk.booking.service.BookingService;
+import dev.eerturk.booking.service.ChangeVersions;
+import dev.eerturk.booking.service.IdempotentBookingService;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("bookings")
 public class BookingController {
   private final BookingService bookingService;
+  private final IdempotentBookingService idempotentBookingService;
+  private final ChangeVersions changeVersions;
+  private final PaginationProperties paginationProperties;
+  private final ObjectMapper objectMapper;
 
-  public BookingController(BookingService bookingService) {
+  public BookingController(
+      BookingService bookingService,
+      IdempotentBookingService idempotentBookingService,
+      ChangeVersions changeVersions,
+      PaginationProperties paginationProperties,
+      ObjectMapper objectMapper) {
     this.bookingService = bookingService;
+    this.idempotentBookingService = idempotentBookingService;
+    this.changeVersions = changeVersions;
+    this.paginationProperties = paginationProperties;
+    this.objectMapper = objectMapper;
   }
 
   @GetMapping
-  public List<BookingDetailResponse> get() {
-    return bookingService.findAll();
+  public ResponseEntity<StreamingResponseBody> get(
+      @RequestParam(defaultValue = "0") long after, WebRequest webRequest) {
+    if (webRequest.checkNotModified(changeVersions.globalTag("json"))) {
+      return null;
+    }
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(
+            outputStream -> {
+              try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                writeAll(generator, after, false);
+                generator.writeEndArray();
+              }
+            });
+  }
+
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> getNdjson(
+      @RequestParam(defaultValue = "0") long after, WebRequest webRequest) {
+    if (webRequest.checkNotModified(changeVersions.globalTag("ndjson"))) {
+      return null;
+    }
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(
+            outputStream -> {
+              try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                writeAll(generator, after, true);
+              }
+            });
+  }
+
+  @GetMapping(params = "limit")
+  public ResponseEntity<List<BookingDetailResponse>> getPage(
+      @RequestParam(defaultValue = "0") long after,
+      @RequestParam int limit,
+      WebRequest webRequest) {
+    if (webRequest.checkNotModified(changeVersions.globalTag("page"))) {
+      return null;
+    }
+    int pageSize = pageSize(limit);
+    return page(bookingService.findPage(after, pageSize), pageSize);
+  }
+
+  @GetMapping("{id}")
+  public BookingDetailResponse getById(
+      @PathVariable Long id,
+      @RequestParam(defaultValue = "false") boolean includeArchived,
+      WebRequest webRequest) {
+    if (webRequest.checkNotModified(
+        changeVersions.globalTag(includeArchived ? "archived-booking" : "booking"))) {
+      return null;
+    }
+    return bookingService.findById(id, includeArchived);
+  }
+
+  @GetMapping("search")
+  public ResponseEntity<List<BookingDetailResponse>> search(
+      BookingSearchCriteria criteria,
+      @RequestParam(defaultValue = "0") long after,
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(defaultValue = "false") boolean includeArchived,
+      WebRequest webRequest) {
+    if (webRequest.checkNotModified(
+        changeVersions.globalTag(includeArchived ? "archived-search" : "search"))) {
+      return null;
+    }
+    int pageSize = pageSize(limit != null ? limit : paginationProperties.defaultLimit());
+    return page(bookingService.search(criteria, after, pageSize, includeArchived), pageSize);
   }
 
   @PostMapping
   @ResponseStatus(HttpStatus.CREATED)
-  public BookingDetailResponse post(@Valid @RequestBody CreateBookingRequest createBookingRequest) {
-    return bookingService.create(createBookingRequest);
+  public BookingDetailResponse post(
+      @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+      @Valid @RequestBody CreateBookingRequest createBookingRequest) {
+    if (idempotencyKey == null) {
+      return bookingService.create(createBookingRequest);
+    }
+    return idempotentBookingService.create(idempotencyKey, createBookingRequest);
+  }
+
+  @PostMapping("batch")
+  public List<BatchItemResult> postBatch(
+      @Valid @RequestBody CreateBookingBatchRequest createBookingBatchRequest) {
+    return bookingService.createAll(createBookingBatchRequest.bookings());
   }
 
   @DeleteMapping("{id}")
@@ -42,4 +154,52 @@ public class BookingController {
   public void rebook(@PathVariable Long id) {
     bookingService.rebook(id);
   }
+
+  @PutMapping("cancel")
+  public BulkOperationResult cancelAll(@Valid @RequestBody BulkBookingRequest bulkBookingRequest) {
+    return bookingService.cancelAll(bulkBookingRequest);
+  }
+
+  @PutMapping("rebook")
+  public BulkOperationResult rebookAll(@Valid @RequestBody BulkBookingRequest bulkBookingRequest) {
+    return bookingService.rebookAll(bulkBookingRequest);
+  }
+
+  private int pageSize(int limit) {
+    return Math.max(1, Math.min(limit, paginationProperties.maxLimit()));
+  }
+
+  private static ResponseEntity<List<BookingDetailResponse>> page(
+      List<BookingDetailResponse> page, int pageSize) {
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (page.size() == pageSize) {
+      String next =
+          ServletUriComponentsBuilder.fromCurrentRequest()
+              .replaceQueryParam("after", page.get(page.size() - 1).id())
+              .replaceQueryParam("limit", pageSize)
+              .toUriString();
+      response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+    }
+    return response.body(page);
+  }
+
+  private void writeAll(JsonGenerator generator, long after, boolean newlineDelimited) {
+    ObjectWriter writer =
+        objectMapper
+            .writerFor(BookingDetailResponse.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    bookingService.forEachBooking(
+        after,
+        paginationProperties.fetchSize(),
+        booking -> {
+          try {
+            writer.writeValue(generator, booking);
+            if (newlineDelimited) {
+              generator.writeRaw('\n');
+            }
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
 }
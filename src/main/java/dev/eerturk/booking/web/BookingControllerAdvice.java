@@ -1,50 +1,138 @@
 package dev.eerturk.booking.web;
 
+import dev.eerturk.booking.BookingConflictException;
 import dev.eerturk.booking.BookingIsNotDeleteAbleException;
 import dev.eerturk.booking.BookingNotFoundException;
+import dev.eerturk.booking.ChangeCursorExpiredException;
+import dev.eerturk.booking.HoldNotFoundException;
+import dev.eerturk.booking.InvalidDateRangeException;
+import dev.eerturk.booking.InvalidIdempotencyKeyException;
 import dev.eerturk.booking.ReservationAlreadyExistsException;
+import dev.eerturk.booking.metrics.BookingMetrics;
 import java.util.HashMap;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.method.HandlerMethod;
 
 @RestControllerAdvice
 public class BookingControllerAdvice {
   private static final Logger LOGGER = LoggerFactory.getLogger(BookingControllerAdvice.class);
+  private final BookingMetrics bookingMetrics;
+  private final SampledLogger rejections;
+
+  public BookingControllerAdvice(
+      BookingMetrics bookingMetrics, RejectionLoggingProperties properties) {
+    this.bookingMetrics = bookingMetrics;
+    this.rejections = new SampledLogger(LOGGER, properties.logInterval());
+  }
 
   @ExceptionHandler(BookingNotFoundException.class)
-  @ResponseStatus(HttpStatus.NOT_FOUND)
-  String NotFoundHandler(BookingNotFoundException ex) {
-    LOGGER.warn("The requested resource was not found", ex);
-    return ex.getMessage();
+  ProblemDetail NotFoundHandler(BookingNotFoundException ex, HandlerMethod handlerMethod) {
+    rejections.warn("The requested resource was not found", ex);
+    bookingMetrics.recordError(ex, handlerMethod);
+    ProblemDetail problem = problem(HttpStatus.NOT_FOUND, "Booking not found", ex);
+    problem.setProperty("bookingId", ex.getId());
+    return problem;
   }
 
   @ExceptionHandler(ReservationAlreadyExistsException.class)
-  @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
-  String alreadyExistsHandler(ReservationAlreadyExistsException ex) {
-    LOGGER.warn("The requested dates was not available", ex);
-    return ex.getMessage();
+  ProblemDetail alreadyExistsHandler(
+      ReservationAlreadyExistsException ex, HandlerMethod handlerMethod) {
+    rejections.warn("The requested dates was not available", ex);
+    bookingMetrics.recordError(ex, handlerMethod);
+    ProblemDetail problem =
+        problem(HttpStatus.UNPROCESSABLE_ENTITY, "Reservation not available", ex);
+    problem.setProperty("propertyIds", ex.getPropertyIds());
+    if (ex.getStartDate() != null) {
+      problem.setProperty("startDate", ex.getStartDate());
+      problem.setProperty("endDate", ex.getEndDate());
+    }
+    return problem;
   }
 
   @ExceptionHandler(BookingIsNotDeleteAbleException.class)
+  ProblemDetail notAbleToDeleteHandler(
+      BookingIsNotDeleteAbleException ex, HandlerMethod handlerMethod) {
+    rejections.warn("The requested booking was not able to delete", ex);
+    bookingMetrics.recordError(ex, handlerMethod);
+    ProblemDetail problem = problem(HttpStatus.UNPROCESSABLE_ENTITY, "Booking not deletable", ex);
+    problem.setProperty("bookingId", ex.getId());
+    return problem;
+  }
+
+  @ExceptionHandler(HoldNotFoundException.class)
+  ProblemDetail holdNotFoundHandler(HoldNotFoundException ex, HandlerMethod handlerMethod) {
+    rejections.warn("The requested hold was not found", ex);
+    bookingMetrics.recordError(ex, handlerMethod);
+    ProblemDetail problem = problem(HttpStatus.NOT_FOUND, "Hold not found", ex);
+    problem.setProperty("holdId", ex.getId());
+    return problem;
+  }
+
+  @ExceptionHandler(BookingConflictException.class)
+  ProblemDetail conflictHandler(BookingConflictException ex, HandlerMethod handlerMethod) {
+    rejections.warn("The requested booking was modified concurrently", ex);
+    bookingMetrics.recordError(ex, handlerMethod);
+    ProblemDetail problem = problem(HttpStatus.CONFLICT, "Booking modified concurrently", ex);
+    problem.setProperty("bookingId", ex.getId());
+    return problem;
+  }
+
+  @ExceptionHandler(ChangeCursorExpiredException.class)
+  ProblemDetail cursorExpiredHandler(ChangeCursorExpiredException ex, HandlerMethod handlerMethod) {
+    rejections.warn("The requested change cursor was no longer retained", ex);
+    bookingMetrics.recordError(ex, handlerMethod);
+    ProblemDetail problem = problem(HttpStatus.GONE, "Change cursor expired", ex);
+    problem.setProperty("after", ex.getAfter());
+    return problem;
+  }
+
+  private static ProblemDetail problem(HttpStatus status, String title, Exception ex) {
+    ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+    problem.setTitle(title);
+    return problem;
+  }
+
+  @ExceptionHandler(InvalidDateRangeException.class)
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  String invalidDateRangeHandler(InvalidDateRangeException ex) {
+    LOGGER.warn("The requested date range was not valid", ex);
+    return ex.getMessage();
+  }
+
+  @ExceptionHandler(InvalidIdempotencyKeyException.class)
   @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
-  String notAbleToDeleteHandler(BookingIsNotDeleteAbleException ex) {
-    LOGGER.warn("The requested booking was not able to delete", ex);
+  String invalidIdempotencyKeyHandler(InvalidIdempotencyKeyException ex) {
+    LOGGER.warn("The idempotency key was not usable", ex);
     return ex.getMessage();
   }
 
   @ExceptionHandler(MethodArgumentNotValidException.class)
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   public Map<String, String> handleValidationExceptions(MethodArgumentNotValidException ex) {
+    return fieldErrors(ex.getBindingResult());
+  }
+
+  @ExceptionHandler(WebExchangeBindException.class)
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public Map<String, String> handleReactiveValidationExceptions(WebExchangeBindException ex) {
+    return fieldErrors(ex.getBindingResult());
+  }
+
+  private static Map<String, String> fieldErrors(BindingResult bindingResult) {
     var errors = new HashMap<String, String>();
-    ex.getBindingResult()
+    bindingResult
         .getAllErrors()
         .forEach(
             error -> {
@@ -0,0 +1,38 @@
+package dev.eerturk.booking.web;
+
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.dto.BookingHold;
+import dev.eerturk.booking.service.BookingService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("bookings/holds")
+public class BookingHoldController {
+  private final BookingService bookingService;
+
+  public BookingHoldController(BookingService bookingService) {
+    this.bookingService = bookingService;
+  }
+
+  @PostMapping
+  @ResponseStatus(HttpStatus.CREATED)
+  public BookingHold hold(@Valid @RequestBody CreateBookingRequest createBookingRequest) {
+    return bookingService.hold(createBookingRequest);
+  }
+
+  @PostMapping("{holdId}/confirm")
+  @ResponseStatus(HttpStatus.CREATED)
+  public BookingDetailResponse confirm(@PathVariable String holdId) {
+    return bookingService.confirmHold(holdId);
+  }
+
+  @DeleteMapping("{holdId}")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void release(@PathVariable String holdId) {
+    bookingService.releaseHold(holdId);
+  }
+}
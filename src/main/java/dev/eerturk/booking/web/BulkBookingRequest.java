@@ -0,0 +1,38 @@
+package dev.eerturk.booking.web;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.List;
+
+public record BulkBookingRequest(
+    @Positive(message = "The property id must be greater than zero") Long propertyId,
+    LocalDate startDate,
+    LocalDate endDate,
+    @Size(max = 1000, message = "The request must not contain more than 1000 booking ids.")
+        List<@NotNull(message = "The booking id must be defined.") Long> ids) {
+
+  public static BulkBookingRequest of(Long propertyId, LocalDate startDate, LocalDate endDate) {
+    return new BulkBookingRequest(propertyId, startDate, endDate, null);
+  }
+
+  public static BulkBookingRequest of(List<Long> ids) {
+    return new BulkBookingRequest(null, null, null, ids);
+  }
+
+  public boolean hasIds() {
+    return ids != null && !ids.isEmpty();
+  }
+
+  @AssertTrue(message = "Either booking ids or a property id with a date range must be defined.")
+  public boolean isScoped() {
+    return hasIds() != (propertyId != null && startDate != null && endDate != null);
+  }
+
+  @AssertTrue(message = "The end date must not be before the start date.")
+  public boolean isDateRangeValid() {
+    return startDate == null || endDate == null || !endDate.isBefore(startDate);
+  }
+}
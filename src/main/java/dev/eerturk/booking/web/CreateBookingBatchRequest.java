@@ -0,0 +1,18 @@
+package dev.eerturk.booking.web;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record CreateBookingBatchRequest(
+    @NotEmpty(message = "The batch must contain at least one booking.")
+        @Size(max = 1000, message = "The batch must not contain more than 1000 bookings.")
+        List<@Valid @NotNull(message = "The booking must be defined.") CreateBookingRequest>
+            bookings) {
+
+  public static CreateBookingBatchRequest of(List<CreateBookingRequest> bookings) {
+    return new CreateBookingBatchRequest(bookings);
+  }
+}
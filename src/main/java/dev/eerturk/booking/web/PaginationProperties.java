@@ -0,0 +1,10 @@
+package dev.eerturk.booking.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.pagination")
+public record PaginationProperties(
+    @DefaultValue("100") int defaultLimit,
+    @DefaultValue("1000") int maxLimit,
+    @DefaultValue("500") int fetchSize) {}
@@ -0,0 +1,76 @@
+package dev.eerturk.booking.web;
+
+import dev.eerturk.booking.dto.AvailabilityCalendarResponse;
+import dev.eerturk.booking.dto.AvailabilitySearchResponse;
+import dev.eerturk.booking.dto.AvailabilityWindow;
+import dev.eerturk.booking.service.AvailabilityCalendar;
+import dev.eerturk.booking.service.AvailabilitySearch;
+import dev.eerturk.booking.service.ChangeVersions;
+import dev.eerturk.booking.service.PropertyWindows;
+import jakarta.validation.Valid;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("properties")
+public class PropertyController {
+  private final AvailabilityCalendar availabilityCalendar;
+  private final AvailabilitySearch availabilitySearch;
+  private final PropertyWindows propertyWindows;
+  private final ChangeVersions changeVersions;
+
+  public PropertyController(
+      AvailabilityCalendar availabilityCalendar,
+      AvailabilitySearch availabilitySearch,
+      PropertyWindows propertyWindows,
+      ChangeVersions changeVersions) {
+    this.availabilityCalendar = availabilityCalendar;
+    this.availabilitySearch = availabilitySearch;
+    this.propertyWindows = propertyWindows;
+    this.changeVersions = changeVersions;
+  }
+
+  @PostMapping("availability")
+  public AvailabilitySearchResponse search(
+      @Valid @RequestBody AvailabilitySearchRequest availabilitySearchRequest) {
+    return availabilitySearch.search(
+        availabilitySearchRequest.from(),
+        availabilitySearchRequest.to(),
+        availabilitySearchRequest.propertyIds());
+  }
+
+  @GetMapping("{propertyId}/availability")
+  public ResponseEntity<AvailabilityCalendarResponse> availability(
+      @PathVariable Long propertyId,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      WebRequest webRequest) {
+    if (webRequest.checkNotModified(changeVersions.propertyTag(propertyId, "calendar"))) {
+      return null;
+    }
+    return ResponseEntity.ok(availabilityCalendar.calendar(propertyId, from, to));
+  }
+
+  @GetMapping("{propertyId}/windows")
+  public AvailabilityWindow window(
+      @PathVariable Long propertyId,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate after,
+      @RequestParam int nights) {
+    return propertyWindows.nextWindow(propertyId, after, nights);
+  }
+
+  @GetMapping("{propertyId}/gaps")
+  public List<AvailabilityWindow> gaps(
+      @PathVariable Long propertyId,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam int shorterThan) {
+    return propertyWindows.gaps(propertyId, from, to, shorterThan);
+  }
+}
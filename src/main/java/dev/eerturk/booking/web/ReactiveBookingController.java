@@ -0,0 +1,50 @@
+package dev.eerturk.booking.web;
+
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.service.ReactiveBookingService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("bookings")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingController {
+  private final ReactiveBookingService bookingService;
+
+  public ReactiveBookingController(ReactiveBookingService bookingService) {
+    this.bookingService = bookingService;
+  }
+
+  @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public Flux<BookingDetailResponse> get(@RequestParam(defaultValue = "0") long after) {
+    return bookingService.findAll(after);
+  }
+
+  @PostMapping
+  @ResponseStatus(HttpStatus.CREATED)
+  public Mono<BookingDetailResponse> post(
+      @Valid @RequestBody CreateBookingRequest createBookingRequest) {
+    return bookingService.create(createBookingRequest);
+  }
+
+  @DeleteMapping("{id}")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public Mono<Void> delete(@PathVariable Long id) {
+    return bookingService.delete(id);
+  }
+
+  @PutMapping("{id}/cancel")
+  public Mono<Void> cancel(@PathVariable Long id) {
+    return bookingService.cancel(id);
+  }
+
+  @PutMapping("{id}/rebook")
+  public Mono<Void> rebook(@PathVariable Long id) {
+    return bookingService.rebook(id);
+  }
+}
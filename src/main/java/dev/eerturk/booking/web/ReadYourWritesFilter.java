@@ -0,0 +1,63 @@
+package dev.eerturk.booking.web;
+
+import dev.eerturk.booking.dao.DataSourceRoute;
+import dev.eerturk.booking.dao.ReplicaRoutingProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "booking.replicas.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+  static final String COOKIE_NAME = "booking-last-write";
+  private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+  private final ReplicaRoutingProperties properties;
+
+  public ReadYourWritesFilter(ReplicaRoutingProperties properties) {
+    this.properties = properties;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    long now = System.currentTimeMillis();
+    if (!SAFE_METHODS.contains(request.getMethod())) {
+      Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now));
+      cookie.setPath("/");
+      cookie.setHttpOnly(true);
+      cookie.setMaxAge((int) Math.max(1, properties.readYourWrites().toSeconds()));
+      response.addCookie(cookie);
+    } else if (now - lastWrite(request) < properties.readYourWrites().toMillis()) {
+      DataSourceRoute.forcePrimary();
+    }
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      DataSourceRoute.reset();
+    }
+  }
+
+  private static long lastWrite(HttpServletRequest request) {
+    Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+    if (cookie == null) {
+      return 0;
+    }
+    try {
+      return Long.parseLong(cookie.getValue());
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+}
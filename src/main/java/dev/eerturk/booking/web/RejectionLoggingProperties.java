@@ -0,0 +1,8 @@
+package dev.eerturk.booking.web;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "booking.rejections")
+public record RejectionLoggingProperties(@DefaultValue("10s") Duration logInterval) {}
@@ -0,0 +1,41 @@
+package dev.eerturk.booking.web;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+
+final class SampledLogger {
+  private final Logger logger;
+  private final long intervalNanos;
+  private final ConcurrentMap<Class<?>, Window> windows = new ConcurrentHashMap<>();
+
+  SampledLogger(Logger logger, Duration interval) {
+    this.logger = logger;
+    this.intervalNanos = interval.toNanos();
+  }
+
+  void warn(String message, Exception exception) {
+    if (!logger.isWarnEnabled()) {
+      return;
+    }
+    Window window = windows.computeIfAbsent(exception.getClass(), type -> new Window());
+    window.occurrences.increment();
+    long now = System.nanoTime();
+    long next = window.next.get();
+    if (now - next >= 0 && window.next.compareAndSet(next, now + intervalNanos)) {
+      logger.warn(
+          "{}: {} ({} occurrences since the last report)",
+          message,
+          exception.getMessage(),
+          window.occurrences.sumThenReset());
+    }
+  }
+
+  private static final class Window {
+    private final AtomicLong next = new AtomicLong(System.nanoTime());
+    private final LongAdder occurrences = new LongAdder();
+  }
+}
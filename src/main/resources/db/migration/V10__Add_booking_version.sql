@@ -0,0 +1 @@
+ALTER TABLE booking ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
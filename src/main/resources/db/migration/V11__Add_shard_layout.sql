@@ -0,0 +1,6 @@
+CREATE TABLE shard_layout (
+                              id INT NOT NULL,
+                              layout VARCHAR(2048) NOT NULL,
+                              recorded_at TIMESTAMP NOT NULL,
+                              PRIMARY KEY (id)
+);
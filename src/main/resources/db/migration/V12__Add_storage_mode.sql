@@ -0,0 +1,6 @@
+CREATE TABLE storage_mode (
+                              id INT NOT NULL,
+                              mode VARCHAR(16) NOT NULL,
+                              recorded_at TIMESTAMP NOT NULL,
+                              PRIMARY KEY (id)
+);
@@ -0,0 +1 @@
+CREATE INDEX booking_propertyId_status_endDate_startDate ON booking (property_id, status, end_date, start_date);
@@ -0,0 +1,3 @@
+CREATE SEQUENCE booking_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE booking_date_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,5 @@
+CREATE INDEX booking_propertyId_id ON booking (property_id, id);
+
+CREATE INDEX booking_guestId_id ON booking (guest_id, id);
+
+CREATE INDEX booking_status_id ON booking (status, id);
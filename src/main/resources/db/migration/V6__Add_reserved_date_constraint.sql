@@ -0,0 +1,5 @@
+ALTER TABLE booking_date ADD COLUMN reserved_date DATE;
+
+UPDATE booking_date SET reserved_date = date WHERE booking_type = 'RESERVATION';
+
+ALTER TABLE booking_date ADD CONSTRAINT booking_date_propertyId_reservedDate UNIQUE (property_id, reserved_date);
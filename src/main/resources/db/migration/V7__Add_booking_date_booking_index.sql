@@ -0,0 +1 @@
+CREATE INDEX booking_date_bookingId ON booking_date (booking_id);
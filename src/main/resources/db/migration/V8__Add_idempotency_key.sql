@@ -0,0 +1,13 @@
+CREATE TABLE idempotency_key (
+                                 idempotency_key VARCHAR(255) NOT NULL,
+                                 booking_id BIGINT,
+                                 property_id BIGINT,
+                                 start_date DATE,
+                                 end_date DATE,
+                                 guest_id BIGINT,
+                                 status VARCHAR(32),
+                                 created_at TIMESTAMP NOT NULL,
+                                 PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idempotency_key_createdAt ON idempotency_key (created_at);
@@ -0,0 +1,31 @@
+CREATE TABLE booking_archive (
+                                 id BIGINT NOT NULL,
+                                 property_id BIGINT NOT NULL,
+                                 start_date DATE NOT NULL,
+                                 end_date DATE NOT NULL,
+                                 guest_id BIGINT,
+                                 status VARCHAR(32) NOT NULL,
+                                 booking_type VARCHAR(32),
+                                 archived_at TIMESTAMP NOT NULL,
+                                 PRIMARY KEY (id)
+);
+
+CREATE INDEX booking_archive_propertyId_id ON booking_archive (property_id, id);
+
+CREATE INDEX booking_archive_guestId_id ON booking_archive (guest_id, id);
+
+CREATE TABLE booking_date_archive (
+                                      id BIGINT NOT NULL,
+                                      date DATE NOT NULL,
+                                      booking_id BIGINT NOT NULL,
+                                      booking_type VARCHAR(255),
+                                      property_id BIGINT NOT NULL,
+                                      reserved_date DATE,
+                                      PRIMARY KEY (id)
+);
+
+CREATE INDEX booking_date_archive_propertyId_date ON booking_date_archive (property_id, date);
+
+CREATE INDEX booking_date_date ON booking_date (date);
+
+CREATE INDEX booking_endDate ON booking (end_date);
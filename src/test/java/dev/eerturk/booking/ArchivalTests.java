@@ -0,0 +1,94 @@
+package dev.eerturk.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.service.BookingArchiver;
+import dev.eerturk.booking.web.CreateBookingRequest;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:archival;DB_CLOSE_DELAY=-1",
+      "booking.archive.batch-size=2"
+    })
+class ArchivalTests {
+
+  @Autowired private WebTestClient webTestClient;
+
+  @Autowired private BookingArchiver bookingArchiver;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void shouldMovePastBookingsAndDatesToArchiveInBatches() {
+    var today = LocalDate.now();
+    BookingDetailResponse past =
+        create(CreateBookingRequest.of(1l, today.minusDays(10), today.minusDays(6), 1l));
+    BookingDetailResponse current =
+        create(CreateBookingRequest.of(1l, today.minusDays(2), today.plusDays(2), 2l));
+    webTestClient.get().uri("/bookings/{id}", past.id()).exchange().expectStatus().isOk();
+
+    bookingArchiver.archiveBefore(today);
+
+    assertThat(count("booking where id = " + past.id())).isZero();
+    assertThat(count("booking_archive where id = " + past.id())).isOne();
+    assertThat(count("booking_date where booking_id = " + past.id())).isZero();
+    assertThat(count("booking_date_archive where booking_id = " + past.id())).isEqualTo(5);
+    assertThat(count("booking where id = " + current.id())).isOne();
+    assertThat(count("booking_date where booking_id = " + current.id())).isEqualTo(3);
+    assertThat(count("booking_date_archive where booking_id = " + current.id())).isEqualTo(2);
+
+    webTestClient.get().uri("/bookings/{id}", past.id()).exchange().expectStatus().isNotFound();
+    webTestClient
+        .get()
+        .uri("/bookings/{id}?includeArchived=true", past.id())
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(BookingDetailResponse.class)
+        .isEqualTo(past);
+    webTestClient
+        .get()
+        .uri("/bookings/search?propertyId=1&includeArchived=true")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBodyList(BookingDetailResponse.class)
+        .value(
+            bookings ->
+                assertThat(bookings)
+                    .extracting(BookingDetailResponse::id)
+                    .containsExactly(past.id(), current.id()));
+    webTestClient
+        .post()
+        .uri("/bookings")
+        .bodyValue(CreateBookingRequest.of(1l, today.plusDays(1), today.plusDays(1), 3l))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(422);
+  }
+
+  private BookingDetailResponse create(CreateBookingRequest request) {
+    return webTestClient
+        .post()
+        .uri("/bookings")
+        .bodyValue(request)
+        .exchange()
+        .expectStatus()
+        .isCreated()
+        .expectBody(BookingDetailResponse.class)
+        .returnResult()
+        .getResponseBody();
+  }
+
+  private int count(String from) {
+    return jdbcTemplate.queryForObject("select count(*) from " + from, Integer.class);
+  }
+}
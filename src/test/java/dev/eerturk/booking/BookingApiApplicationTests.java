@@ -2,14 +2,27 @@ package dev.eerturk.booking;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import dev.eerturk.booking.dto.BatchItemResult;
+import dev.eerturk.booking.dto.BatchItemStatus;
+import dev.eerturk.booking.dto.BookingChange;
 import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.dto.BookingHold;
+import dev.eerturk.booking.dto.BulkOperationResult;
 import dev.eerturk.booking.model.Status;
+import dev.eerturk.booking.web.BulkBookingRequest;
+import dev.eerturk.booking.web.CreateBookingBatchRequest;
 import dev.eerturk.booking.web.CreateBookingRequest;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
@@ -56,6 +69,97 @@ class BookingApiApplicationTests {
         .getResponseBody();
   }
 
+  @Test
+  void shouldBecomeReadyAfterWarmupWithoutKeepingWarmupBookings() {
+    webTestClient
+        .get()
+        .uri("/actuator/health/readiness")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.status")
+        .isEqualTo("UP");
+    webTestClient
+        .get()
+        .uri("/actuator/metrics/booking.warmup")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.measurements[?(@.statistic == 'COUNT')].value")
+        .isEqualTo(1.0);
+    webTestClient
+        .get()
+        .uri("/bookings/search?propertyId={propertyId}", Long.MAX_VALUE)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBodyList(BookingDetailResponse.class)
+        .hasSize(0);
+  }
+
+  @Test
+  void shouldHoldNightsInMemoryAndPersistThemOnConfirmation() {
+    var propertyId = Instant.now().toEpochMilli();
+    var toHold =
+        CreateBookingRequest.of(
+            propertyId, LocalDate.now().plusDays(3), LocalDate.now().plusDays(5), 5l);
+    BookingHold hold =
+        webTestClient
+            .post()
+            .uri("/bookings/holds")
+            .bodyValue(toHold)
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(BookingHold.class)
+            .returnResult()
+            .getResponseBody();
+
+    webTestClient
+        .post()
+        .uri("/bookings")
+        .bodyValue(
+            CreateBookingRequest.of(
+                propertyId, LocalDate.now().plusDays(4), LocalDate.now().plusDays(4), 6l))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(422);
+    webTestClient
+        .get()
+        .uri("/bookings/search?propertyId={propertyId}", propertyId)
+        .exchange()
+        .expectBodyList(BookingDetailResponse.class)
+        .hasSize(0);
+
+    BookingDetailResponse confirmed =
+        webTestClient
+            .post()
+            .uri("/bookings/holds/{holdId}/confirm", hold.id())
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(BookingDetailResponse.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(confirmed.propertyId()).isEqualTo(propertyId);
+    assertThat(confirmed.startDate()).isEqualTo(toHold.startDate());
+    webTestClient
+        .post()
+        .uri("/bookings/holds/{holdId}/confirm", hold.id())
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+    webTestClient
+        .delete()
+        .uri("/bookings/holds/{holdId}", hold.id())
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+  }
+
   @Test
   void shouldThrowReservationAlreadyExistsWhenRequestIsReservationAndDateRangeHasReservation() {
     var toCreate =
@@ -294,4 +398,338 @@ class BookingApiApplicationTests {
         .expectStatus()
         .is4xxClientError();
   }
+
+  @Test
+  void shouldCreateBookingBatchAndRejectConflictingItems() {
+    var propertyId = Instant.now().toEpochMilli();
+    var reservation =
+        CreateBookingRequest.of(
+            propertyId, LocalDate.now().plusDays(10), LocalDate.now().plusDays(20), 5l);
+    var conflicting =
+        CreateBookingRequest.of(
+            propertyId, LocalDate.now().plusDays(15), LocalDate.now().plusDays(25), 6l);
+    var block =
+        CreateBookingRequest.of(
+            propertyId, LocalDate.now().plusDays(21), LocalDate.now().plusDays(30), null);
+
+    List<BatchItemResult> results =
+        webTestClient
+            .post()
+            .uri("/bookings/batch")
+            .bodyValue(CreateBookingBatchRequest.of(List.of(reservation, conflicting, block)))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(BatchItemResult.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(results)
+        .extracting(BatchItemResult::status)
+        .containsExactly(
+            BatchItemStatus.CREATED, BatchItemStatus.REJECTED, BatchItemStatus.CREATED);
+
+    webTestClient
+        .get()
+        .uri("/bookings")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBodyList(BookingDetailResponse.class)
+        .contains(results.get(0).booking(), results.get(2).booking());
+
+    webTestClient
+        .post()
+        .uri("/bookings")
+        .bodyValue(
+            CreateBookingRequest.of(
+                propertyId, LocalDate.now().plusDays(20), LocalDate.now().plusDays(21), 7l))
+        .exchange()
+        .expectStatus()
+        .is4xxClientError();
+  }
+
+  @Test
+  void shouldPageThroughBookingsWithKeysetCursor() {
+    var propertyId = Instant.now().toEpochMilli();
+    List<BookingDetailResponse> created =
+        List.of(10, 20, 30).stream()
+            .map(
+                offset ->
+                    webTestClient
+                        .post()
+                        .uri("/bookings")
+                        .bodyValue(
+                            CreateBookingRequest.of(
+                                propertyId,
+                                LocalDate.now().plusDays(offset),
+                                LocalDate.now().plusDays(offset + 5),
+                                5l))
+                        .exchange()
+                        .expectStatus()
+                        .isCreated()
+                        .expectBody(BookingDetailResponse.class)
+                        .returnResult()
+                        .getResponseBody())
+            .toList();
+
+    webTestClient
+        .get()
+        .uri("/bookings?after={after}&limit=2", created.get(0).id() - 1)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueMatches("Link", ".*after=" + created.get(1).id() + "&limit=2.*")
+        .expectBodyList(BookingDetailResponse.class)
+        .isEqualTo(created.subList(0, 2));
+
+    webTestClient
+        .get()
+        .uri("/bookings?after={after}", created.get(1).id())
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBodyList(BookingDetailResponse.class)
+        .contains(created.get(2))
+        .doesNotContain(created.get(0), created.get(1));
+  }
+
+  @Test
+  void shouldCancelAndRebookBookingsInBulk() {
+    var propertyId = Instant.now().toEpochMilli();
+    List<Long> created =
+        List.of(10, 20, 30).stream()
+            .map(
+                offset ->
+                    webTestClient
+                        .post()
+                        .uri("/bookings")
+                        .bodyValue(
+                            CreateBookingRequest.of(
+                                propertyId,
+                                LocalDate.now().plusDays(offset),
+                                LocalDate.now().plusDays(offset + 5),
+                                5l))
+                        .exchange()
+                        .expectStatus()
+                        .isCreated()
+                        .expectBody(BookingDetailResponse.class)
+                        .returnResult()
+                        .getResponseBody()
+                        .id())
+            .toList();
+
+    webTestClient
+        .put()
+        .uri("/bookings/cancel")
+        .bodyValue(
+            BulkBookingRequest.of(
+                propertyId, LocalDate.now().plusDays(12), LocalDate.now().plusDays(20)))
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(BulkOperationResult.class)
+        .isEqualTo(BulkOperationResult.of(created.subList(0, 2)));
+
+    BookingDetailResponse blocker =
+        webTestClient
+            .post()
+            .uri("/bookings")
+            .bodyValue(
+                CreateBookingRequest.of(
+                    propertyId, LocalDate.now().plusDays(22), LocalDate.now().plusDays(23), 6l))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(BookingDetailResponse.class)
+            .returnResult()
+            .getResponseBody();
+
+    webTestClient
+        .put()
+        .uri("/bookings/rebook")
+        .bodyValue(BulkBookingRequest.of(created))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(422);
+
+    webTestClient
+        .put()
+        .uri("/bookings/" + blocker.id() + "/cancel")
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    webTestClient
+        .put()
+        .uri("/bookings/rebook")
+        .bodyValue(BulkBookingRequest.of(created))
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(BulkOperationResult.class)
+        .isEqualTo(BulkOperationResult.of(created.subList(0, 2)));
+
+    webTestClient
+        .post()
+        .uri("/bookings")
+        .bodyValue(
+            CreateBookingRequest.of(
+                propertyId, LocalDate.now().plusDays(15), LocalDate.now().plusDays(15), 7l))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(422);
+  }
+
+  @Test
+  void shouldReplayCreatedBookingForRepeatedIdempotencyKey() {
+    var toCreate =
+        CreateBookingRequest.of(
+            Instant.now().toEpochMilli(),
+            LocalDate.now().plusDays(10),
+            LocalDate.now().plusDays(12),
+            5l);
+    var key = "booking-" + toCreate.propertyId();
+    BookingDetailResponse created =
+        webTestClient
+            .post()
+            .uri("/bookings")
+            .header("Idempotency-Key", key)
+            .bodyValue(toCreate)
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(BookingDetailResponse.class)
+            .returnResult()
+            .getResponseBody();
+
+    webTestClient
+        .post()
+        .uri("/bookings")
+        .header("Idempotency-Key", key)
+        .bodyValue(toCreate)
+        .exchange()
+        .expectStatus()
+        .isCreated()
+        .expectBody(BookingDetailResponse.class)
+        .isEqualTo(created);
+
+    webTestClient
+        .post()
+        .uri("/bookings")
+        .header("Idempotency-Key", key)
+        .bodyValue(
+            CreateBookingRequest.of(
+                toCreate.propertyId(), toCreate.startDate(), toCreate.endDate(), 6l))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(422);
+  }
+
+  @Test
+  void shouldReadSingleBookingAndSeeItsLatestStatus() {
+    BookingDetailResponse created =
+        webTestClient
+            .post()
+            .uri("/bookings")
+            .bodyValue(
+                CreateBookingRequest.of(
+                    Instant.now().toEpochMilli(),
+                    LocalDate.now().plusDays(10),
+                    LocalDate.now().plusDays(12),
+                    5l))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(BookingDetailResponse.class)
+            .returnResult()
+            .getResponseBody();
+
+    webTestClient
+        .get()
+        .uri("/bookings/" + created.id())
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(BookingDetailResponse.class)
+        .isEqualTo(created);
+
+    webTestClient
+        .put()
+        .uri("/bookings/" + created.id() + "/cancel")
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    webTestClient
+        .get()
+        .uri("/bookings/" + created.id())
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(BookingDetailResponse.class)
+        .value(booking -> assertThat(booking.status()).isEqualTo(Status.CANCEL));
+
+    webTestClient.get().uri("/bookings/-1").exchange().expectStatus().isNotFound();
+  }
+
+  @Test
+  void shouldStreamChangesForPropertyFromCursor() {
+    var propertyId = Instant.now().toEpochMilli();
+    BookingDetailResponse created =
+        webTestClient
+            .post()
+            .uri("/bookings")
+            .bodyValue(
+                CreateBookingRequest.of(
+                    propertyId, LocalDate.now().plusDays(10), LocalDate.now().plusDays(12), 5l))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(BookingDetailResponse.class)
+            .returnResult()
+            .getResponseBody();
+    webTestClient
+        .put()
+        .uri("/bookings/" + created.id() + "/cancel")
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    List<ServerSentEvent<BookingChange>> events =
+        webTestClient
+            .get()
+            .uri("/bookings/changes?propertyId={propertyId}&after=0", propertyId)
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(new ParameterizedTypeReference<ServerSentEvent<BookingChange>>() {})
+            .getResponseBody()
+            .take(3)
+            .collectList()
+            .block(Duration.ofSeconds(10));
+
+    assertThat(events)
+        .extracting(ServerSentEvent::event)
+        .containsExactly("reset", "CREATED", "CANCELLED");
+    assertThat(events.get(1).data().bookingId()).isEqualTo(created.id());
+    assertThat(events.get(2).id()).isEqualTo(Long.toString(events.get(2).data().sequence()));
+  }
+
+  @Test
+  void shouldRejectExpiredCursorOnNdjsonChangeFeed() {
+    webTestClient
+        .get()
+        .uri("/bookings/changes?after=0")
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus()
+        .isEqualTo(HttpStatus.GONE)
+        .expectBody()
+        .jsonPath("$.after")
+        .isEqualTo(0);
+  }
 }
@@ -0,0 +1,107 @@
+package dev.eerturk.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.eerturk.booking.dao.BookingDateRepository;
+import dev.eerturk.booking.model.BookingDate;
+import dev.eerturk.booking.model.BookingType;
+import dev.eerturk.booking.service.BookingService;
+import dev.eerturk.booking.web.CreateBookingRequest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("integration")
+class ConcurrentBookingTests {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentBookingTests.class);
+  private static final Long PROPERTY_ID = 9001l;
+  private static final int THREADS = 8;
+  private static final int ATTEMPTS_PER_THREAD = 50;
+
+  @Autowired private BookingService bookingService;
+
+  @Autowired private BookingDateRepository bookingDateRepository;
+
+  @Test
+  void shouldNeverDoubleBookAPropertyUnderConcurrentRequests() throws Exception {
+    var created = new AtomicInteger();
+    var rejected = new AtomicInteger();
+    var start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int thread = 0; thread < THREADS; thread++) {
+      futures.add(
+          executor.submit(
+              (Callable<Void>)
+                  () -> {
+                    start.await();
+                    for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                      try {
+                        bookingService.create(randomRequest());
+                        created.incrementAndGet();
+                      } catch (ReservationAlreadyExistsException e) {
+                        rejected.incrementAndGet();
+                      }
+                    }
+                    return null;
+                  }));
+    }
+    long startedAt = System.nanoTime();
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(2, TimeUnit.MINUTES);
+    }
+    long elapsedNanos = System.nanoTime() - startedAt;
+    executor.shutdown();
+
+    int attempts = THREADS * ATTEMPTS_PER_THREAD;
+    LOGGER.info(
+        "{} concurrent create attempts on one property: {} created, {} rejected, {} ops/s",
+        attempts,
+        created.get(),
+        rejected.get(),
+        attempts * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+
+    assertThat(created.get() + rejected.get()).isEqualTo(attempts);
+    assertThat(created.get()).isPositive();
+
+    Set<LocalDate> reserved = new HashSet<>();
+    Set<LocalDate> blocked = new HashSet<>();
+    for (BookingDate date : bookingDateRepository.findAll()) {
+      if (!date.getPropertyId().equals(PROPERTY_ID)) {
+        continue;
+      }
+      if (date.getBookingType() == BookingType.RESERVATION) {
+        assertThat(reserved.add(date.getDate())).as("reserved twice: %s", date.getDate()).isTrue();
+      } else {
+        blocked.add(date.getDate());
+      }
+    }
+    assertThat(reserved).doesNotContainAnyElementsOf(blocked);
+  }
+
+  private static CreateBookingRequest randomRequest() {
+    var random = ThreadLocalRandom.current();
+    var startDate = LocalDate.now().plusDays(random.nextInt(120));
+    var endDate = startDate.plusDays(random.nextInt(5));
+    var guestId = random.nextInt(5) == 0 ? null : (long) random.nextInt(1, 1000);
+    return CreateBookingRequest.of(PROPERTY_ID, startDate, endDate, guestId);
+  }
+}
@@ -0,0 +1,95 @@
+package dev.eerturk.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.service.DailyOccupancyBackfill;
+import dev.eerturk.booking.web.CreateBookingRequest;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:backfill;DB_CLOSE_DELAY=-1",
+      "booking.storage.backfill.batch-size=1"
+    })
+class DailyOccupancyBackfillTests {
+
+  @Autowired private WebTestClient webTestClient;
+
+  @Autowired private DailyOccupancyBackfill backfill;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void shouldBackfillDatesOfBookingsStoredInIntervalMode() {
+    var today = LocalDate.now();
+    BookingDetailResponse first =
+        create(CreateBookingRequest.of(1l, today.plusDays(1), today.plusDays(3), 1l));
+    BookingDetailResponse second =
+        create(CreateBookingRequest.of(2l, today.plusDays(1), today.plusDays(1), 2l));
+    jdbcTemplate.update("delete from booking_date");
+
+    assertThat(backfill.backfill(today)).isEqualTo(2);
+
+    assertThat(count(first.id())).isEqualTo(3);
+    assertThat(count(second.id())).isOne();
+    assertThat(backfill.backfill(today)).isZero();
+    webTestClient
+        .post()
+        .uri("/bookings")
+        .bodyValue(CreateBookingRequest.of(1l, today.plusDays(2), today.plusDays(2), 3l))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(422);
+  }
+
+  @Test
+  void shouldReleaseDatesOfInactiveBookingsOnlyAfterSwitchingBackToDailyMode() {
+    var today = LocalDate.now();
+    BookingDetailResponse cancelled =
+        create(CreateBookingRequest.of(3l, today.plusDays(1), today.plusDays(3), 1l));
+    jdbcTemplate.update("update booking set status = 'CANCEL' where id = ?", cancelled.id());
+
+    backfill.run(null);
+    assertThat(count(cancelled.id())).isEqualTo(3);
+
+    jdbcTemplate.update("update storage_mode set mode = 'interval'");
+    backfill.run(null);
+
+    assertThat(count(cancelled.id())).isZero();
+    assertThat(jdbcTemplate.queryForObject("select mode from storage_mode", String.class))
+        .isEqualTo("daily");
+    BookingDetailResponse rebooked =
+        create(CreateBookingRequest.of(3l, today.plusDays(2), today.plusDays(2), 2l));
+    webTestClient
+        .put()
+        .uri("/bookings/" + rebooked.id() + "/cancel")
+        .exchange()
+        .expectStatus()
+        .isOk();
+  }
+
+  private BookingDetailResponse create(CreateBookingRequest request) {
+    return webTestClient
+        .post()
+        .uri("/bookings")
+        .bodyValue(request)
+        .exchange()
+        .expectStatus()
+        .isCreated()
+        .expectBody(BookingDetailResponse.class)
+        .returnResult()
+        .getResponseBody();
+  }
+
+  private long count(Long bookingId) {
+    return jdbcTemplate.queryForObject(
+        "select count(*) from booking_date where booking_id = ?", Long.class, bookingId);
+  }
+}
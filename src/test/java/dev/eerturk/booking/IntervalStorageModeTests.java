@@ -0,0 +1,92 @@
+package dev.eerturk.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.eerturk.booking.dao.BookingDateRepository;
+import dev.eerturk.booking.dao.StorageModeRepository;
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.model.StorageMode;
+import dev.eerturk.booking.web.CreateBookingRequest;
+import java.time.Instant;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "booking.storage.mode=interval")
+@ActiveProfiles("integration")
+class IntervalStorageModeTests {
+
+  @Autowired private WebTestClient webTestClient;
+
+  @Autowired private BookingDateRepository bookingDateRepository;
+
+  @Autowired private StorageModeRepository storageModeRepository;
+
+  @Test
+  void shouldRecordTheIntervalModeSoTheDailyBackfillRunsAfterASwitch() {
+    assertThat(storageModeRepository.findById(StorageMode.CURRENT))
+        .get()
+        .extracting(StorageMode::getMode)
+        .isEqualTo(StorageMode.INTERVAL);
+  }
+
+  @Test
+  void shouldDetectOverlapsWithoutWritingBookingDates() {
+    var propertyId = Instant.now().toEpochMilli();
+    var toCreate =
+        CreateBookingRequest.of(
+            propertyId, LocalDate.now().plusDays(10), LocalDate.now().plusDays(100), 5l);
+    BookingDetailResponse created =
+        webTestClient
+            .post()
+            .uri("/bookings")
+            .bodyValue(toCreate)
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(BookingDetailResponse.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(bookingDateRepository.count()).isZero();
+
+    webTestClient
+        .post()
+        .uri("/bookings")
+        .bodyValue(
+            CreateBookingRequest.of(
+                propertyId, LocalDate.now().plusDays(100), LocalDate.now().plusDays(105), null))
+        .exchange()
+        .expectStatus()
+        .is4xxClientError();
+
+    webTestClient
+        .put()
+        .uri("/bookings/" + created.id() + "/cancel")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful();
+
+    webTestClient
+        .post()
+        .uri("/bookings")
+        .bodyValue(
+            CreateBookingRequest.of(
+                propertyId, LocalDate.now().plusDays(100), LocalDate.now().plusDays(105), null))
+        .exchange()
+        .expectStatus()
+        .isCreated();
+
+    webTestClient
+        .put()
+        .uri("/bookings/" + created.id() + "/rebook")
+        .exchange()
+        .expectStatus()
+        .is4xxClientError();
+  }
+}
@@ -0,0 +1,68 @@
+package dev.eerturk.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.eerturk.booking.web.CreateBookingRequest;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.codec.max-in-memory-size=4MB")
+@AutoConfigureObservability
+class MetricsTests {
+
+  @Autowired private WebTestClient webTestClient;
+
+  @Test
+  void shouldExposeBookingMetricsInPrometheusFormat() {
+    var start = LocalDate.now().plusDays(5);
+    webTestClient
+        .post()
+        .uri("/bookings")
+        .bodyValue(CreateBookingRequest.of(77l, start, start.plusDays(2), 1l))
+        .exchange()
+        .expectStatus()
+        .isCreated();
+    webTestClient
+        .post()
+        .uri("/bookings")
+        .bodyValue(CreateBookingRequest.of(77l, start, start, 2l))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(422);
+    webTestClient.put().uri("/bookings/-1/cancel").exchange().expectStatus().isNotFound();
+
+    String scrape =
+        webTestClient
+            .get()
+            .uri("/actuator/prometheus")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(String.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(scrape)
+        .contains("booking_service_seconds_count{", "operation=\"create\"")
+        .contains(
+            "booking_service_seconds_count{class=\"dev.eerturk.booking.service.BookingService\",exception=\"none\",method=\"create\",operation=\"create\",} 1.0")
+        .contains("operation=\"cancel\"")
+        .contains(
+            "spring_data_repository_invocations_seconds_count{",
+            "repository=\"BookingDateRepository\"")
+        .contains(
+            "booking_errors_total{endpoint=\"BookingController.post\",exception=\"ReservationAlreadyExistsException\",}")
+        .contains(
+            "booking_errors_total{endpoint=\"BookingController.cancel\",exception=\"BookingNotFoundException\",}")
+        .contains("booking_nights_count{type=\"RESERVATION\",} 1.0")
+        .contains("booking_nights_sum{type=\"RESERVATION\",} 3.0")
+        .contains("cache_gets_total{cache=\"bookings\"")
+        .contains("hikaricp_connections_active", "tomcat_threads_busy_threads");
+  }
+}
@@ -0,0 +1,226 @@
+package dev.eerturk.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.eerturk.booking.dao.BookingRepository;
+import dev.eerturk.booking.dto.BookingChange;
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.event.ChangeType;
+import dev.eerturk.booking.model.Booking;
+import dev.eerturk.booking.model.BookingType;
+import dev.eerturk.booking.model.Status;
+import dev.eerturk.booking.service.BookingChangeFeed;
+import dev.eerturk.booking.web.CreateBookingRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+class ReactiveModeTests {
+
+  @Autowired private WebTestClient webTestClient;
+
+  @Autowired private BookingRepository bookingRepository;
+
+  @Autowired private BookingChangeFeed changeFeed;
+
+  @LocalServerPort private int port;
+
+  @Test
+  void shouldApplyTheSameConflictRulesAsTheServletStack() {
+    var start = LocalDate.now().plusDays(10);
+    BookingDetailResponse reservation =
+        webTestClient
+            .post()
+            .uri("/bookings")
+            .bodyValue(CreateBookingRequest.of(11l, start, start.plusDays(3), 5l))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(BookingDetailResponse.class)
+            .returnResult()
+            .getResponseBody();
+
+    webTestClient
+        .post()
+        .uri("/bookings")
+        .bodyValue(CreateBookingRequest.of(11l, start.plusDays(3), start.plusDays(5), null))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+
+    webTestClient
+        .post()
+        .uri("/bookings")
+        .bodyValue(CreateBookingRequest.of(null, start, start, null))
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectBody()
+        .jsonPath("$.propertyId")
+        .isEqualTo("The property id must be defined.");
+
+    webTestClient
+        .put()
+        .uri("/bookings/" + reservation.id() + "/cancel")
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    BookingDetailResponse block =
+        webTestClient
+            .post()
+            .uri("/bookings")
+            .bodyValue(CreateBookingRequest.of(11l, start.plusDays(3), start.plusDays(5), null))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(BookingDetailResponse.class)
+            .returnResult()
+            .getResponseBody();
+
+    webTestClient
+        .put()
+        .uri("/bookings/" + reservation.id() + "/rebook")
+        .exchange()
+        .expectStatus()
+        .isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+
+    webTestClient.delete().uri("/bookings/" + block.id()).exchange().expectStatus().isNoContent();
+
+    webTestClient
+        .put()
+        .uri("/bookings/" + reservation.id() + "/rebook")
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    webTestClient
+        .get()
+        .uri("/bookings?after=" + (reservation.id() - 1))
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBodyList(BookingDetailResponse.class)
+        .value(
+            bookings ->
+                assertThat(bookings)
+                    .extracting(BookingDetailResponse::id)
+                    .contains(reservation.id()));
+  }
+
+  @Test
+  void shouldAcceptExactlyOneOfManyConcurrentOverlappingReservations() {
+    var start = LocalDate.now().plusDays(40);
+    var client = WebClient.create("http://localhost:" + port);
+    List<HttpStatusCode> statuses =
+        Flux.range(0, 50)
+            .flatMap(
+                guestId ->
+                    client
+                        .post()
+                        .uri("/bookings")
+                        .bodyValue(
+                            CreateBookingRequest.of(
+                                12l, start.plusDays(guestId % 3), start.plusDays(3), guestId + 1l))
+                        .exchangeToMono(response -> Mono.just(response.statusCode())),
+                50)
+            .collectList()
+            .block();
+
+    assertThat(statuses).filteredOn(HttpStatus.CREATED::equals).hasSize(1);
+    assertThat(statuses).filteredOn(HttpStatus.UNPROCESSABLE_ENTITY::equals).hasSize(49);
+  }
+
+  @Test
+  void shouldNotCollideWithDateIdsAllocatedByHibernate() {
+    var start = LocalDate.now().plusDays(100);
+    for (int round = 0; round < 3; round++) {
+      var from = start.plusDays(round * 70l);
+      webTestClient
+          .post()
+          .uri("/bookings")
+          .bodyValue(CreateBookingRequest.of(13l, from, from.plusDays(59), 7l))
+          .exchange()
+          .expectStatus()
+          .isCreated();
+
+      Booking booking =
+          new Booking()
+              .setPropertyId(14l)
+              .setStartDate(from)
+              .setEndDate(from.plusDays(59))
+              .setGuestId(7l)
+              .setStatus(Status.ACTIVE)
+              .setBookingType(BookingType.RESERVATION);
+      booking.initDates();
+      bookingRepository.save(booking);
+    }
+  }
+
+  @Test
+  void shouldPublishChangesOnceTheReactiveTransactionCommits() {
+    var start = LocalDate.now().plusDays(20);
+    Mono<List<ChangeType>> changes =
+        changeFeed.changes(15l, null).map(BookingChange::type).take(5).collectList().cache();
+    changes.subscribe();
+
+    BookingDetailResponse reservation =
+        webTestClient
+            .post()
+            .uri("/bookings")
+            .bodyValue(CreateBookingRequest.of(15l, start, start.plusDays(2), 5l))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(BookingDetailResponse.class)
+            .returnResult()
+            .getResponseBody();
+    webTestClient
+        .put()
+        .uri("/bookings/" + reservation.id() + "/cancel")
+        .exchange()
+        .expectStatus()
+        .isOk();
+    webTestClient
+        .put()
+        .uri("/bookings/" + reservation.id() + "/rebook")
+        .exchange()
+        .expectStatus()
+        .isOk();
+    BookingDetailResponse block =
+        webTestClient
+            .post()
+            .uri("/bookings")
+            .bodyValue(CreateBookingRequest.of(15l, start.plusDays(5), start.plusDays(6), null))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(BookingDetailResponse.class)
+            .returnResult()
+            .getResponseBody();
+    webTestClient.delete().uri("/bookings/" + block.id()).exchange().expectStatus().isNoContent();
+
+    assertThat(changes.block(Duration.ofSeconds(5)))
+        .containsExactly(
+            ChangeType.CREATED,
+            ChangeType.CANCELLED,
+            ChangeType.REBOOKED,
+            ChangeType.CREATED,
+            ChangeType.DELETED);
+  }
+}
@@ -0,0 +1,178 @@
+package dev.eerturk.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.web.CreateBookingRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseCookie;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.datasource.url=" + ReplicaRoutingTests.PRIMARY_URL,
+      "booking.replicas.enabled=true",
+      "booking.replicas.instances[0].url=jdbc:h2:mem:routing-missing;IFEXISTS=TRUE",
+      "booking.replicas.instances[0].username=sa",
+      "booking.replicas.instances[1].url=" + ReplicaRoutingTests.REPLICA_URL,
+      "booking.replicas.instances[1].username=sa"
+    })
+class ReplicaRoutingTests {
+  static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+  static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+  private static final long REPLICA_ONLY_ID = 1_000_000_001l;
+
+  @Autowired private WebTestClient webTestClient;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @BeforeAll
+  static void seedReplica() throws SQLException {
+    Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate(
+          "insert into booking (id, property_id, start_date, end_date, guest_id, status,"
+              + " booking_type) values ("
+              + REPLICA_ONLY_ID
+              + ", 1, current_date, current_date, 1, 'ACTIVE', 'RESERVATION')");
+    }
+  }
+
+  @Test
+  void shouldReadFromReplicaAndReadOwnWritesFromPrimary() {
+    webTestClient
+        .get()
+        .uri("/bookings?after={after}&limit=10", REPLICA_ONLY_ID - 1)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBodyList(BookingDetailResponse.class)
+        .value(
+            bookings ->
+                assertThat(bookings)
+                    .extracting(BookingDetailResponse::id)
+                    .containsExactly(REPLICA_ONLY_ID));
+
+    var propertyId = Instant.now().toEpochMilli();
+    ResponseCookie lastWrite =
+        webTestClient
+            .post()
+            .uri("/bookings")
+            .bodyValue(
+                CreateBookingRequest.of(
+                    propertyId, LocalDate.now().plusDays(10), LocalDate.now().plusDays(12), 5l))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectCookie()
+            .exists("booking-last-write")
+            .returnResult(BookingDetailResponse.class)
+            .getResponseCookies()
+            .getFirst("booking-last-write");
+
+    List<BookingDetailResponse> fromReplica = search(propertyId, null);
+    List<BookingDetailResponse> fromPrimary = search(propertyId, lastWrite);
+
+    assertThat(fromReplica).isEmpty();
+    assertThat(fromPrimary)
+        .extracting(BookingDetailResponse::propertyId)
+        .containsExactly(propertyId);
+    assertThat(
+            meterRegistry
+                .get("booking.datasource.replica.available")
+                .tag("route", "replica-0")
+                .gauge()
+                .value())
+        .isZero();
+    assertThat(
+            meterRegistry
+                .get("booking.datasource.connections")
+                .tag("route", "replica-1")
+                .counter()
+                .count())
+        .isPositive();
+  }
+
+  @Test
+  void shouldWriteIdempotentCreatesToPrimaryAndReplayKeysStoredThere() throws SQLException {
+    var propertyId = Instant.now().toEpochMilli() + 1;
+    var request =
+        CreateBookingRequest.of(
+            propertyId, LocalDate.now().plusDays(10), LocalDate.now().plusDays(12), 5l);
+    BookingDetailResponse created =
+        webTestClient
+            .post()
+            .uri("/bookings")
+            .header("Idempotency-Key", "routing-k1")
+            .bodyValue(request)
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(BookingDetailResponse.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(count(PRIMARY_URL, "booking where id = " + created.id())).isOne();
+    assertThat(count(PRIMARY_URL, "idempotency_key where idempotency_key = 'routing-k1'")).isOne();
+    assertThat(count(REPLICA_URL, "booking where id = " + created.id())).isZero();
+    assertThat(count(REPLICA_URL, "idempotency_key")).isZero();
+
+    try (Connection connection = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate(
+          "insert into idempotency_key (idempotency_key, booking_id, property_id, start_date,"
+              + " end_date, guest_id, status, created_at) select 'routing-k2', id, property_id,"
+              + " start_date, end_date, guest_id, status, current_timestamp from booking where id = "
+              + created.id());
+    }
+    webTestClient
+        .post()
+        .uri("/bookings")
+        .header("Idempotency-Key", "routing-k2")
+        .bodyValue(request)
+        .exchange()
+        .expectStatus()
+        .isCreated()
+        .expectBody(BookingDetailResponse.class)
+        .isEqualTo(created);
+  }
+
+  private static int count(String url, String from) throws SQLException {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "");
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("select count(*) from " + from)) {
+      resultSet.next();
+      return resultSet.getInt(1);
+    }
+  }
+
+  private List<BookingDetailResponse> search(long propertyId, ResponseCookie lastWrite) {
+    WebTestClient.RequestHeadersSpec<?> request =
+        webTestClient.get().uri("/bookings/search?propertyId={propertyId}", propertyId);
+    if (lastWrite != null) {
+      request = request.cookie(lastWrite.getName(), lastWrite.getValue());
+    }
+    return request
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBodyList(BookingDetailResponse.class)
+        .returnResult()
+        .getResponseBody();
+  }
+}
@@ -0,0 +1,169 @@
+package dev.eerturk.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.eerturk.booking.dao.ShardContext;
+import dev.eerturk.booking.dto.BatchItemResult;
+import dev.eerturk.booking.dto.BatchItemStatus;
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.model.Status;
+import dev.eerturk.booking.service.ShardRouter;
+import dev.eerturk.booking.web.CreateBookingBatchRequest;
+import dev.eerturk.booking.web.CreateBookingRequest;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.datasource.url=" + ShardingTests.SHARD_0,
+      "booking.shards.enabled=true",
+      "booking.shards.instances[0].url=" + ShardingTests.SHARD_1,
+      "booking.shards.instances[0].username=sa",
+      "booking.shards.instances[1].url=" + ShardingTests.SHARD_2,
+      "booking.shards.instances[1].username=sa",
+      "booking.shards.pinned.101=1",
+      "booking.shards.pinned.102=2"
+    })
+class ShardingTests {
+  static final String SHARD_0 = "jdbc:h2:mem:shard-0;DB_CLOSE_DELAY=-1";
+  static final String SHARD_1 = "jdbc:h2:mem:shard-1;DB_CLOSE_DELAY=-1";
+  static final String SHARD_2 = "jdbc:h2:mem:shard-2;DB_CLOSE_DELAY=-1";
+  private static final List<String> SHARDS = List.of(SHARD_0, SHARD_1, SHARD_2);
+
+  @Autowired private WebTestClient webTestClient;
+
+  @Autowired private ShardRouter shardRouter;
+
+  @Test
+  void shouldStoreBookingsOnPropertyShardAndFindThemById() throws SQLException {
+    var start = LocalDate.now().plusDays(30);
+    BookingDetailResponse onFirst = create(CreateBookingRequest.of(101l, start, start, 1l));
+    BookingDetailResponse onSecond = create(CreateBookingRequest.of(102l, start, start, null));
+
+    assertThat(ShardContext.shardOf(onFirst.id())).isEqualTo(1);
+    assertThat(ShardContext.shardOf(onSecond.id())).isEqualTo(2);
+    assertThat(countOn(SHARD_1, onFirst.id())).isOne();
+    assertThat(countOn(SHARD_0, onFirst.id())).isZero();
+    assertThat(countOn(SHARD_2, onSecond.id())).isOne();
+
+    webTestClient
+        .get()
+        .uri("/bookings/{id}", onSecond.id())
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(BookingDetailResponse.class)
+        .isEqualTo(onSecond);
+    webTestClient
+        .put()
+        .uri("/bookings/{id}/cancel", onFirst.id())
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful();
+    webTestClient
+        .delete()
+        .uri("/bookings/{id}", onSecond.id())
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful();
+
+    assertThat(countOn(SHARD_2, onSecond.id())).isZero();
+    webTestClient
+        .get()
+        .uri("/bookings/{id}", onFirst.id())
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(BookingDetailResponse.class)
+        .value(booking -> assertThat(booking.status()).isEqualTo(Status.CANCEL));
+  }
+
+  @Test
+  void shouldSplitBatchesByShardAndMergePages() throws SQLException {
+    var start = LocalDate.now().plusDays(60);
+    List<CreateBookingRequest> commands =
+        List.of(
+            CreateBookingRequest.of(101l, start, start.plusDays(1), 2l),
+            CreateBookingRequest.of(102l, start, start.plusDays(1), 3l),
+            CreateBookingRequest.of(103l, start, start.plusDays(1), 4l),
+            CreateBookingRequest.of(102l, start.plusDays(1), start.plusDays(2), 5l));
+
+    List<BatchItemResult> results =
+        webTestClient
+            .post()
+            .uri("/bookings/batch")
+            .bodyValue(CreateBookingBatchRequest.of(commands))
+            .exchange()
+            .expectBody(new ParameterizedTypeReference<List<BatchItemResult>>() {})
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(results)
+        .extracting(BatchItemResult::index, BatchItemResult::status)
+        .containsExactly(
+            Tuple.tuple(0, BatchItemStatus.CREATED),
+            Tuple.tuple(1, BatchItemStatus.CREATED),
+            Tuple.tuple(2, BatchItemStatus.CREATED),
+            Tuple.tuple(3, BatchItemStatus.REJECTED));
+    assertThat(ShardContext.shardOf(results.get(2).booking().id()))
+        .isEqualTo(shardRouter.shardFor(103l));
+
+    List<Long> created = results.stream().limit(3).map(result -> result.booking().id()).toList();
+    for (Long id : created) {
+      int shard = ShardContext.shardOf(id);
+      for (int physical = 0; physical < SHARDS.size(); physical++) {
+        assertThat(countOn(SHARDS.get(physical), id)).isEqualTo(physical == shard ? 1 : 0);
+      }
+      webTestClient.get().uri("/bookings/{id}", id).exchange().expectStatus().isOk();
+    }
+    List<BookingDetailResponse> page =
+        webTestClient
+            .get()
+            .uri("/bookings?after=0&limit=1000")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(BookingDetailResponse.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(page).extracting(BookingDetailResponse::id).isSorted().containsAll(created);
+  }
+
+  private BookingDetailResponse create(CreateBookingRequest request) {
+    return webTestClient
+        .post()
+        .uri("/bookings")
+        .bodyValue(request)
+        .exchange()
+        .expectStatus()
+        .isCreated()
+        .expectBody(BookingDetailResponse.class)
+        .returnResult()
+        .getResponseBody();
+  }
+
+  private static int countOn(String url, Long id) throws SQLException {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "");
+        PreparedStatement statement =
+            connection.prepareStatement("select count(*) from booking where id = ?")) {
+      statement.setLong(1, id);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        resultSet.next();
+        return resultSet.getInt(1);
+      }
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package dev.eerturk.booking.dao;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import dev.eerturk.booking.model.Booking;
 import dev.eerturk.booking.model.BookingType;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 
 @DataJpaTest
@@ -84,4 +86,31 @@ class BookingDateRepositoryTest {
                 booking.getStartDate()))
         .isTrue();
   }
+
+  @Test
+  void shouldRejectOverlappingReservedDatesButAllowOverlappingBlocks() {
+    var start = LocalDate.now().plusDays(10);
+    repository.saveAll(
+        Arrays.asList(
+            booking(555l, start, start.plusDays(2), BookingType.BLOCK),
+            booking(555l, start, start.plusDays(2), BookingType.BLOCK),
+            booking(555l, start.plusDays(3), start.plusDays(4), BookingType.RESERVATION)));
+    repository.flush();
+
+    repository.save(booking(555l, start.plusDays(4), start.plusDays(5), BookingType.RESERVATION));
+    assertThatThrownBy(repository::flush).isInstanceOf(DataIntegrityViolationException.class);
+  }
+
+  private static Booking booking(
+      Long propertyId, LocalDate startDate, LocalDate endDate, BookingType bookingType) {
+    Booking booking = new Booking();
+    booking.setStartDate(startDate);
+    booking.setEndDate(endDate);
+    booking.setGuestId(bookingType == BookingType.RESERVATION ? 333l : null);
+    booking.setPropertyId(propertyId);
+    booking.setStatus(Status.ACTIVE);
+    booking.setBookingType(bookingType);
+    booking.initDates();
+    return booking;
+  }
 }
@@ -2,7 +2,10 @@ package dev.eerturk.booking.dao;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.dto.BookingSearchCriteria;
 import dev.eerturk.booking.model.Booking;
+import dev.eerturk.booking.model.BookingType;
 import dev.eerturk.booking.model.Status;
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -52,4 +55,121 @@ class BookingRepositoryTests {
                 .collect(Collectors.toList()))
         .hasSize(2);
   }
+
+  @Test
+  void existsOverlapping() {
+    Booking reservation = new Booking();
+    reservation.setStartDate(LocalDate.now().plusDays(10));
+    reservation.setEndDate(LocalDate.now().plusDays(20));
+    reservation.setGuestId(333l);
+    reservation.setPropertyId(5555l);
+    reservation.setStatus(Status.ACTIVE);
+    reservation.setBookingType(BookingType.RESERVATION);
+
+    Booking cancelled = new Booking();
+    cancelled.setStartDate(LocalDate.now().plusDays(30));
+    cancelled.setEndDate(LocalDate.now().plusDays(40));
+    cancelled.setPropertyId(5555l);
+    cancelled.setStatus(Status.CANCEL);
+    cancelled.setBookingType(BookingType.BLOCK);
+
+    repository.saveAll(Arrays.asList(reservation, cancelled));
+
+    assertThat(
+            repository.existsOverlapping(
+                5555l, LocalDate.now().plusDays(20), LocalDate.now().plusDays(25)))
+        .isTrue();
+    assertThat(
+            repository.existsOverlapping(
+                5555l, LocalDate.now().plusDays(1), LocalDate.now().plusDays(10)))
+        .isTrue();
+    assertThat(
+            repository.existsOverlapping(
+                5555l, LocalDate.now().plusDays(21), LocalDate.now().plusDays(35)))
+        .isFalse();
+    assertThat(
+            repository.existsOverlapping(
+                5555l,
+                BookingType.BLOCK,
+                LocalDate.now().plusDays(1),
+                LocalDate.now().plusDays(15)))
+        .isFalse();
+    assertThat(
+            repository.existsOverlapping(
+                5555l,
+                BookingType.RESERVATION,
+                LocalDate.now().plusDays(1),
+                LocalDate.now().plusDays(15)))
+        .isTrue();
+  }
+
+  @Test
+  void searchProjectsMatchingBookingsInKeysetOrder() {
+    Booking first = booking(6666l, 333l, Status.ACTIVE, BookingType.RESERVATION, 10, 20);
+    Booking otherGuest = booking(6666l, 444l, Status.ACTIVE, BookingType.RESERVATION, 30, 40);
+    Booking cancelled = booking(6666l, 333l, Status.CANCEL, BookingType.RESERVATION, 50, 60);
+    Booking block = booking(6666l, null, Status.ACTIVE, BookingType.BLOCK, 70, 80);
+    Booking otherProperty = booking(6667l, 333l, Status.ACTIVE, BookingType.RESERVATION, 10, 20);
+    repository.saveAll(Arrays.asList(first, otherGuest, cancelled, block, otherProperty));
+
+    assertThat(
+            repository.search(
+                new BookingSearchCriteria(6666l, null, null, null, null, null), 0, 10))
+        .extracting(BookingDetailResponse::id)
+        .containsExactly(first.getId(), otherGuest.getId(), cancelled.getId(), block.getId());
+    assertThat(
+            repository.search(
+                new BookingSearchCriteria(6666l, null, null, null, null, null), first.getId(), 2))
+        .extracting(BookingDetailResponse::id)
+        .containsExactly(otherGuest.getId(), cancelled.getId());
+    assertThat(
+            repository.search(
+                new BookingSearchCriteria(null, 333l, Status.ACTIVE, null, null, null), 0, 10))
+        .extracting(BookingDetailResponse::id)
+        .contains(first.getId(), otherProperty.getId())
+        .doesNotContain(otherGuest.getId(), cancelled.getId(), block.getId());
+    assertThat(
+            repository.search(
+                new BookingSearchCriteria(6666l, null, null, BookingType.BLOCK, null, null), 0, 10))
+        .extracting(BookingDetailResponse::id)
+        .containsExactly(block.getId());
+    assertThat(
+            repository.search(
+                new BookingSearchCriteria(
+                    6666l,
+                    null,
+                    null,
+                    null,
+                    LocalDate.now().plusDays(20),
+                    LocalDate.now().plusDays(30)),
+                0,
+                10))
+        .containsExactly(
+            new BookingDetailResponse(
+                first.getId(),
+                6666l,
+                first.getStartDate(),
+                first.getEndDate(),
+                333l,
+                Status.ACTIVE),
+            new BookingDetailResponse(
+                otherGuest.getId(),
+                6666l,
+                otherGuest.getStartDate(),
+                otherGuest.getEndDate(),
+                444l,
+                Status.ACTIVE));
+  }
+
+  private static Booking booking(
+      Long propertyId, Long guestId, Status status, BookingType type, int from, int to) {
+    Booking booking = new Booking();
+    booking.setStartDate(LocalDate.now().plusDays(from));
+    booking.setEndDate(LocalDate.now().plusDays(to));
+    booking.setGuestId(guestId);
+    booking.setPropertyId(propertyId);
+    booking.setStatus(status);
+    booking.setBookingType(type);
+    return booking;
+  }
 }
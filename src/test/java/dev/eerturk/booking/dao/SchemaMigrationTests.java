@@ -0,0 +1,52 @@
+package dev.eerturk.booking.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.eerturk.booking.model.Booking;
+import dev.eerturk.booking.model.BookingType;
+import dev.eerturk.booking.model.Status;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchemaMigrationTests {
+
+  @Autowired private BookingRepository repository;
+
+  @Autowired private BookingDateRepository bookingDateRepository;
+
+  @Test
+  void shouldPersistBookingsAgainstMigratedSchema() {
+    List<Booking> bookings = new ArrayList<>();
+    for (int i = 0; i < 60; i++) {
+      Booking booking = new Booking();
+      booking.setStartDate(LocalDate.now().plusDays(i));
+      booking.setEndDate(LocalDate.now().plusDays(i + 2));
+      booking.setPropertyId(7777l);
+      booking.setStatus(Status.ACTIVE);
+      booking.setBookingType(BookingType.BLOCK);
+      booking.initDates();
+      bookings.add(booking);
+    }
+
+    repository.saveAll(bookings);
+
+    assertThat(bookings).extracting(Booking::getId).doesNotContainNull().doesNotHaveDuplicates();
+    assertThat(
+            bookingDateRepository.existsByPropertyIdAndBookingTypeAndDateBetween(
+                7777l, BookingType.BLOCK, LocalDate.now(), LocalDate.now()))
+        .isTrue();
+    assertThat(repository.findById(bookings.get(0).getId()))
+        .hasValueSatisfying(
+            booking -> {
+              assertThat(booking.getStatus()).isEqualTo(Status.ACTIVE);
+              assertThat(booking.getBookingType()).isEqualTo(BookingType.BLOCK);
+            });
+  }
+}
@@ -0,0 +1,243 @@
+package dev.eerturk.booking.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.eerturk.booking.load.LatencyRecorder.Outcome;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+@Tag("load")
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "logging.level.root=WARN")
+class BookingLoadTest {
+  private static final Logger LOGGER = LoggerFactory.getLogger(BookingLoadTest.class);
+
+  @LocalServerPort private int port;
+
+  @Value("${server.tomcat.threads.max}")
+  private int tomcatThreads;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  private final HttpClient client =
+      HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  private final Queue<Long> activeReservations = new ConcurrentLinkedQueue<>();
+  private final Queue<Long> cancelledReservations = new ConcurrentLinkedQueue<>();
+  private final Queue<Long> blocks = new ConcurrentLinkedQueue<>();
+  private final AtomicLong highestId = new AtomicLong();
+
+  @Test
+  void mixedWorkload() throws Exception {
+    LoadSettings settings = LoadSettings.fromSystemProperties();
+    long measureStart = System.nanoTime() + settings.warmup().toNanos();
+    long end = measureStart + settings.duration().toNanos();
+
+    ExecutorService executor = Executors.newFixedThreadPool(settings.concurrency());
+    List<Future<Map<Operation, LatencyRecorder>>> workers = new ArrayList<>();
+    for (int i = 0; i < settings.concurrency(); i++) {
+      workers.add(executor.submit(() -> run(settings, measureStart, end)));
+    }
+    Map<Operation, LatencyRecorder> totals = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values()) {
+      totals.put(operation, new LatencyRecorder());
+    }
+    for (Future<Map<Operation, LatencyRecorder>> worker : workers) {
+      worker
+          .get(settings.warmup().plus(settings.duration()).toSeconds() + 60, TimeUnit.SECONDS)
+          .forEach((operation, recorder) -> recorder.addTo(totals.get(operation)));
+    }
+    executor.shutdown();
+
+    double seconds = settings.duration().toNanos() / 1e9;
+    StringBuilder report =
+        new StringBuilder()
+            .append(String.format("%n%s%n", settings))
+            .append(
+                String.format(
+                    "concurrency=%d tomcat.threads.max=%d duration=%.0fs%n",
+                    settings.concurrency(), tomcatThreads, seconds))
+            .append(LatencyRecorder.header())
+            .append(System.lineSeparator());
+    long requests = 0;
+    long errors = 0;
+    for (Map.Entry<Operation, LatencyRecorder> total : totals.entrySet()) {
+      report
+          .append(total.getValue().summary(total.getKey(), seconds))
+          .append(System.lineSeparator());
+      requests += total.getValue().count();
+      errors += total.getValue().errors();
+    }
+    report.append(String.format("total   %9d %10.1f%n", requests, requests / seconds));
+    LOGGER.warn(report.toString());
+
+    assertThat(requests).isPositive();
+    assertThat(errors).isZero();
+  }
+
+  private Map<Operation, LatencyRecorder> run(LoadSettings settings, long measureStart, long end) {
+    Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values()) {
+      recorders.put(operation, new LatencyRecorder());
+    }
+    boolean measuring = false;
+    long now;
+    while ((now = System.nanoTime()) < end) {
+      if (!measuring && now >= measureStart) {
+        recorders.values().forEach(LatencyRecorder::reset);
+        measuring = true;
+      }
+      Operation operation = pick(settings);
+      long started = System.nanoTime();
+      Outcome outcome = execute(operation, settings);
+      recorders.get(operation).record(System.nanoTime() - started, outcome);
+    }
+    return recorders;
+  }
+
+  private Operation pick(LoadSettings settings) {
+    int total = settings.mix().values().stream().mapToInt(Integer::intValue).sum();
+    int roll = ThreadLocalRandom.current().nextInt(total);
+    for (Map.Entry<Operation, Integer> weight : settings.mix().entrySet()) {
+      roll -= weight.getValue();
+      if (roll < 0) {
+        return weight.getKey();
+      }
+    }
+    return Operation.CREATE;
+  }
+
+  private Outcome execute(Operation operation, LoadSettings settings) {
+    try {
+      return switch (operation) {
+        case CREATE -> create(settings);
+        case CANCEL -> transition(activeReservations, cancelledReservations, "cancel");
+        case REBOOK -> transition(cancelledReservations, activeReservations, "rebook");
+        case DELETE -> delete();
+        case LIST -> list();
+      };
+    } catch (IOException e) {
+      return Outcome.ERROR;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Outcome.ERROR;
+    }
+  }
+
+  private Outcome create(LoadSettings settings) throws IOException, InterruptedException {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long propertyId =
+        1
+            + (random.nextDouble() < settings.hotShare()
+                ? random.nextInt(settings.hotProperties())
+                : random.nextInt(settings.properties()));
+    LocalDate startDate = LocalDate.now().plusDays(startOffset(settings));
+    LocalDate endDate = startDate.plusDays(random.nextInt(settings.maxNights()));
+    boolean block = random.nextDouble() < settings.blockShare();
+    String body =
+        String.format(
+            "{\"propertyId\":%d,\"startDate\":\"%s\",\"endDate\":\"%s\",\"guestId\":%s}",
+            propertyId, startDate, endDate, block ? "null" : random.nextInt(1, 100_000));
+    HttpResponse<String> response =
+        client.send(
+            request("/bookings")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+    Outcome outcome = outcome(response);
+    if (outcome == Outcome.OK) {
+      long id = objectMapper.readTree(response.body()).get("id").asLong();
+      highestId.accumulateAndGet(id, Math::max);
+      (block ? blocks : activeReservations).add(id);
+    }
+    return outcome;
+  }
+
+  private Outcome transition(Queue<Long> from, Queue<Long> to, String action)
+      throws IOException, InterruptedException {
+    Long id = from.poll();
+    if (id == null) {
+      return Outcome.MISS;
+    }
+    HttpResponse<String> response =
+        client.send(
+            request("/bookings/" + id + "/" + action)
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+    Outcome outcome = outcome(response);
+    (outcome == Outcome.OK ? to : from).add(id);
+    return outcome;
+  }
+
+  private Outcome delete() throws IOException, InterruptedException {
+    Long id = blocks.poll();
+    if (id == null) {
+      return Outcome.MISS;
+    }
+    return outcome(
+        client.send(
+            request("/bookings/" + id).DELETE().build(), HttpResponse.BodyHandlers.ofString()));
+  }
+
+  private Outcome list() throws IOException, InterruptedException {
+    long after = ThreadLocalRandom.current().nextLong(highestId.get() + 1);
+    return outcome(
+        client.send(
+            request("/bookings?after=" + after + "&limit=100").GET().build(),
+            HttpResponse.BodyHandlers.ofString()));
+  }
+
+  private HttpRequest.Builder request(String path) {
+    return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+  }
+
+  private static int startOffset(LoadSettings settings) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    return switch (settings.dateDistribution()) {
+      case UNIFORM -> random.nextInt(settings.horizonDays());
+      case NEAR_TERM -> (int)
+          Math.min(
+              settings.horizonDays() - 1,
+              -Math.log(1 - random.nextDouble()) * settings.horizonDays() / 8);
+    };
+  }
+
+  private static Outcome outcome(HttpResponse<String> response) {
+    int status = response.statusCode();
+    if (status / 100 == 2) {
+      return Outcome.OK;
+    }
+    return switch (status) {
+      case 422 -> Outcome.CONFLICT;
+      case 404 -> Outcome.MISS;
+      default -> Outcome.ERROR;
+    };
+  }
+}
@@ -0,0 +1,98 @@
+package dev.eerturk.booking.load;
+
+import java.util.Arrays;
+
+final class LatencyRecorder {
+  private long[] latencies = new long[1024];
+  private int count;
+  private long conflicts;
+  private long misses;
+  private long errors;
+
+  void record(long latencyNanos, Outcome outcome) {
+    if (count == latencies.length) {
+      latencies = Arrays.copyOf(latencies, count * 2);
+    }
+    latencies[count++] = latencyNanos;
+    switch (outcome) {
+      case CONFLICT -> conflicts++;
+      case MISS -> misses++;
+      case ERROR -> errors++;
+      default -> {}
+    }
+  }
+
+  void reset() {
+    count = 0;
+    conflicts = 0;
+    misses = 0;
+    errors = 0;
+  }
+
+  void addTo(LatencyRecorder total) {
+    for (int i = 0; i < count; i++) {
+      if (total.count == total.latencies.length) {
+        total.latencies = Arrays.copyOf(total.latencies, total.count * 2 + count);
+      }
+      total.latencies[total.count++] = latencies[i];
+    }
+    total.conflicts += conflicts;
+    total.misses += misses;
+    total.errors += errors;
+  }
+
+  long count() {
+    return count;
+  }
+
+  long errors() {
+    return errors;
+  }
+
+  String summary(Operation operation, double seconds) {
+    long[] sorted = Arrays.copyOf(latencies, count);
+    Arrays.sort(sorted);
+    return String.format(
+        "%-7s %9d %10.1f %9.2f %9.2f %9.2f %9.2f %8.2f%% %7d %7d",
+        operation,
+        count,
+        count / seconds,
+        percentile(sorted, 0.50),
+        percentile(sorted, 0.99),
+        percentile(sorted, 0.999),
+        sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6,
+        count == 0 ? 0 : 100.0 * conflicts / count,
+        misses,
+        errors);
+  }
+
+  static String header() {
+    return String.format(
+        "%-7s %9s %10s %9s %9s %9s %9s %9s %7s %7s",
+        "op",
+        "requests",
+        "req/s",
+        "p50 ms",
+        "p99 ms",
+        "p999 ms",
+        "max ms",
+        "conflict",
+        "misses",
+        "errors");
+  }
+
+  private static double percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return sorted[Math.max(0, index)] / 1e6;
+  }
+
+  enum Outcome {
+    OK,
+    CONFLICT,
+    MISS,
+    ERROR
+  }
+}
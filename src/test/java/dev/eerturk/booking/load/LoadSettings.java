@@ -0,0 +1,50 @@
+package dev.eerturk.booking.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+record LoadSettings(
+    int concurrency,
+    Duration warmup,
+    Duration duration,
+    int properties,
+    int hotProperties,
+    double hotShare,
+    double blockShare,
+    DateDistribution dateDistribution,
+    int horizonDays,
+    int maxNights,
+    Map<Operation, Integer> mix) {
+
+  static LoadSettings fromSystemProperties() {
+    return new LoadSettings(
+        Integer.getInteger("load.concurrency", 64),
+        Duration.parse(System.getProperty("load.warmup", "PT5S")),
+        Duration.parse(System.getProperty("load.duration", "PT30S")),
+        Integer.getInteger("load.properties", 1000),
+        Integer.getInteger("load.hot-properties", 10),
+        Double.parseDouble(System.getProperty("load.hot-share", "0.5")),
+        Double.parseDouble(System.getProperty("load.block-share", "0.1")),
+        DateDistribution.valueOf(
+            System.getProperty("load.date-distribution", "near_term").toUpperCase()),
+        Integer.getInteger("load.horizon-days", 365),
+        Integer.getInteger("load.max-nights", 14),
+        mix(System.getProperty("load.mix", "create:50,cancel:15,rebook:10,delete:5,list:20")));
+  }
+
+  private static Map<Operation, Integer> mix(String value) {
+    Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    for (String entry : value.split(",")) {
+      String[] weight = entry.trim().split(":");
+      mix.put(
+          Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+    }
+    return mix;
+  }
+
+  enum DateDistribution {
+    UNIFORM,
+    NEAR_TERM
+  }
+}
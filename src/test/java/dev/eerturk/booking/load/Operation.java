@@ -0,0 +1,9 @@
+package dev.eerturk.booking.load;
+
+enum Operation {
+  CREATE,
+  CANCEL,
+  REBOOK,
+  DELETE,
+  LIST
+}
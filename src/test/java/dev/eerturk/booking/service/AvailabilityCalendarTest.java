@@ -0,0 +1,100 @@
+package dev.eerturk.booking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import dev.eerturk.booking.InvalidDateRangeException;
+import dev.eerturk.booking.dao.ShardingProperties;
+import dev.eerturk.booking.dto.AvailabilityRun;
+import dev.eerturk.booking.dto.DayState;
+import dev.eerturk.booking.dto.OccupiedRange;
+import dev.eerturk.booking.event.BookingChangedEvent;
+import dev.eerturk.booking.event.ChangeType;
+import dev.eerturk.booking.model.BookingType;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityCalendarTest {
+  private static final Long PROPERTY_ID = 42l;
+  private static final LocalDate TODAY = LocalDate.now();
+  private static final LocalDate HORIZON = TODAY.plusDays(100);
+
+  @Mock private OccupancyStore occupancyStore;
+
+  private AvailabilityCalendar calendar;
+
+  @BeforeEach
+  void setUp() {
+    calendar =
+        new AvailabilityCalendar(
+            occupancyStore,
+            new ShardRouter(new ShardingProperties(false, List.of(), 128, Map.of())),
+            new AvailabilityCalendarProperties(10, Duration.ofHours(1), 100, 366));
+  }
+
+  @Test
+  void shouldRunLengthEncodeDayStates() {
+    when(occupancyStore.findOccupiedRanges(PROPERTY_ID, TODAY, HORIZON))
+        .thenReturn(
+            List.of(
+                new OccupiedRange(TODAY.plusDays(2), TODAY.plusDays(2), BookingType.RESERVATION),
+                new OccupiedRange(TODAY.plusDays(3), TODAY.plusDays(3), BookingType.RESERVATION),
+                new OccupiedRange(TODAY.plusDays(5), TODAY.plusDays(6), BookingType.BLOCK)));
+
+    var response = calendar.calendar(PROPERTY_ID, TODAY, TODAY.plusDays(9));
+
+    assertThat(response.runs())
+        .containsExactly(
+            new AvailabilityRun(TODAY, TODAY.plusDays(1), DayState.FREE),
+            new AvailabilityRun(TODAY.plusDays(2), TODAY.plusDays(3), DayState.RESERVED),
+            new AvailabilityRun(TODAY.plusDays(4), TODAY.plusDays(4), DayState.FREE),
+            new AvailabilityRun(TODAY.plusDays(5), TODAY.plusDays(6), DayState.BLOCKED),
+            new AvailabilityRun(TODAY.plusDays(7), TODAY.plusDays(9), DayState.FREE));
+  }
+
+  @Test
+  void shouldServeRepeatedRequestsFromCacheUntilBookingChanges() {
+    when(occupancyStore.findOccupiedRanges(PROPERTY_ID, TODAY, HORIZON)).thenReturn(List.of());
+
+    calendar.calendar(PROPERTY_ID, TODAY, TODAY.plusDays(30));
+    calendar.calendar(PROPERTY_ID, TODAY.plusDays(10), TODAY.plusDays(20));
+    verify(occupancyStore, times(1)).findOccupiedRanges(PROPERTY_ID, TODAY, HORIZON);
+
+    calendar.onBookingChanged(
+        new BookingChangedEvent(
+            ChangeType.CREATED, 1l, PROPERTY_ID, TODAY, TODAY, BookingType.RESERVATION));
+    calendar.calendar(PROPERTY_ID, TODAY, TODAY.plusDays(30));
+    verify(occupancyStore, times(2)).findOccupiedRanges(PROPERTY_ID, TODAY, HORIZON);
+  }
+
+  @Test
+  void shouldScanOccupancyForRangesOutsideTheCachedHorizon() {
+    var from = TODAY.minusDays(10);
+    var to = TODAY.minusDays(1);
+    when(occupancyStore.findOccupiedRanges(PROPERTY_ID, TODAY, HORIZON)).thenReturn(List.of());
+    when(occupancyStore.findOccupiedRanges(PROPERTY_ID, from, to))
+        .thenReturn(List.of(new OccupiedRange(from, to, BookingType.BLOCK)));
+
+    var response = calendar.calendar(PROPERTY_ID, from, to);
+
+    assertThat(response.runs()).containsExactly(new AvailabilityRun(from, to, DayState.BLOCKED));
+  }
+
+  @Test
+  void shouldRejectInvalidRanges() {
+    assertThatThrownBy(() -> calendar.calendar(PROPERTY_ID, TODAY, TODAY.minusDays(1)))
+        .isInstanceOf(InvalidDateRangeException.class);
+    assertThatThrownBy(() -> calendar.calendar(PROPERTY_ID, TODAY, TODAY.plusDays(366)))
+        .isInstanceOf(InvalidDateRangeException.class);
+    verifyNoInteractions(occupancyStore);
+  }
+}
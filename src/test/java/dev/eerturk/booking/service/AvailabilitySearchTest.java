@@ -0,0 +1,138 @@
+package dev.eerturk.booking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import dev.eerturk.booking.InvalidDateRangeException;
+import dev.eerturk.booking.dao.ShardingProperties;
+import dev.eerturk.booking.dto.OccupiedRange;
+import dev.eerturk.booking.dto.PropertyOccupancy;
+import dev.eerturk.booking.event.BookingChangedEvent;
+import dev.eerturk.booking.event.ChangeType;
+import dev.eerturk.booking.model.BookingType;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilitySearchTest {
+  private static final LocalDate TODAY = LocalDate.now();
+
+  @Mock private OccupancyStore occupancyStore;
+
+  private AvailabilitySearch search;
+
+  @BeforeEach
+  void setUp() {
+    search =
+        new AvailabilitySearch(
+            occupancyStore,
+            new ShardRouter(new ShardingProperties(false, List.of(), 128, Map.of())),
+            new AvailabilitySearchProperties(366, 2));
+  }
+
+  @Test
+  void shouldReturnPropertiesFreeForTheWholeStay() {
+    when(occupancyStore.findOccupiedPropertyIds(TODAY)).thenReturn(List.of(1l, 2l, 3l));
+    when(occupancyStore.findOccupancies(List.of(1l, 2l), TODAY))
+        .thenReturn(
+            List.of(
+                new PropertyOccupancy(
+                    1l, TODAY.plusDays(3), TODAY.plusDays(3), BookingType.RESERVATION),
+                new PropertyOccupancy(
+                    2l, TODAY.plusDays(10), TODAY.plusDays(12), BookingType.BLOCK)));
+    when(occupancyStore.findOccupancies(List.of(3l), TODAY))
+        .thenReturn(
+            List.of(
+                new PropertyOccupancy(
+                    3l, TODAY.plusDays(1), TODAY.plusDays(1), BookingType.RESERVATION)));
+
+    assertThat(search.search(TODAY.plusDays(2), TODAY.plusDays(5), null).propertyIds())
+        .containsExactly(2l, 3l);
+    assertThat(search.search(TODAY.plusDays(1), TODAY.plusDays(10), null).propertyIds()).isEmpty();
+    assertThat(
+            search
+                .search(TODAY.plusDays(4), TODAY.plusDays(9), Set.of(1l, 2l, 3l, 99l))
+                .propertyIds())
+        .containsExactly(1l, 2l, 3l, 99l);
+    assertThat(search.preload()).isEqualTo(3);
+    verify(occupancyStore, times(1)).findOccupiedPropertyIds(TODAY);
+  }
+
+  @Test
+  void shouldFollowBookingChangesAfterLoading() {
+    search.search(TODAY, TODAY, null);
+
+    search.onBookingChanged(event(ChangeType.CREATED, BookingType.RESERVATION, 7l, 5, 3));
+    assertThat(search.search(TODAY.plusDays(7), TODAY.plusDays(8), Set.of(7l)).propertyIds())
+        .isEmpty();
+
+    search.onBookingChanged(event(ChangeType.CANCELLED, BookingType.RESERVATION, 7l, 5, 3));
+    assertThat(search.search(TODAY.plusDays(7), TODAY.plusDays(8), Set.of(7l)).propertyIds())
+        .containsExactly(7l);
+  }
+
+  @Test
+  void shouldReloadOverlappingBlocksWhenOneIsReleased() {
+    search.search(TODAY, TODAY, null);
+    search.onBookingChanged(event(ChangeType.CREATED, BookingType.BLOCK, 7l, 5, 5));
+    search.onBookingChanged(event(ChangeType.CREATED, BookingType.BLOCK, 7l, 8, 5));
+    when(occupancyStore.findOccupiedRanges(7l, TODAY.plusDays(5), TODAY.plusDays(9)))
+        .thenReturn(
+            List.of(new OccupiedRange(TODAY.plusDays(8), TODAY.plusDays(12), BookingType.BLOCK)));
+
+    search.onBookingChanged(event(ChangeType.DELETED, BookingType.BLOCK, 7l, 5, 5));
+
+    assertThat(search.search(TODAY.plusDays(5), TODAY.plusDays(7), null).propertyIds())
+        .containsExactly(7l);
+    assertThat(search.search(TODAY.plusDays(9), TODAY.plusDays(9), null).propertyIds()).isEmpty();
+  }
+
+  @Test
+  void shouldQueryReleasedBlockRangesOutsideTheWriteLock() {
+    search.search(TODAY, TODAY, null);
+    search.onBookingChanged(event(ChangeType.CREATED, BookingType.BLOCK, 7l, 5, 5));
+    when(occupancyStore.findOccupiedRanges(7l, TODAY.plusDays(5), TODAY.plusDays(9)))
+        .thenAnswer(
+            invocation -> {
+              assertThat(
+                      CompletableFuture.supplyAsync(
+                              () -> search.search(TODAY.plusDays(5), TODAY.plusDays(5), null))
+                          .get(5, TimeUnit.SECONDS)
+                          .propertyIds())
+                  .isEmpty();
+              return List.of();
+            });
+
+    search.onBookingChanged(event(ChangeType.DELETED, BookingType.BLOCK, 7l, 5, 5));
+
+    assertThat(search.search(TODAY.plusDays(5), TODAY.plusDays(9), null).propertyIds())
+        .containsExactly(7l);
+  }
+
+  @Test
+  void shouldRejectRangesOutsideCoverage() {
+    assertThatThrownBy(() -> search.search(TODAY.plusDays(3), TODAY.plusDays(1), null))
+        .isInstanceOf(InvalidDateRangeException.class);
+    assertThatThrownBy(() -> search.search(TODAY, TODAY.plusDays(366), null))
+        .isInstanceOf(InvalidDateRangeException.class);
+    assertThatThrownBy(() -> search.search(TODAY.minusDays(1), TODAY, null))
+        .isInstanceOf(InvalidDateRangeException.class);
+  }
+
+  private static BookingChangedEvent event(
+      ChangeType type, BookingType bookingType, Long propertyId, int offset, int nights) {
+    LocalDate start = TODAY.plusDays(offset);
+    return new BookingChangedEvent(
+        type, 1l, propertyId, start, start.plusDays(nights - 1), bookingType);
+  }
+}
@@ -0,0 +1,108 @@
+package dev.eerturk.booking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.eerturk.booking.dto.BookingChange;
+import dev.eerturk.booking.event.BookingChangedEvent;
+import dev.eerturk.booking.event.ChangeType;
+import dev.eerturk.booking.model.BookingType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+class BookingChangeFeedTest {
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final BookingChangeFeed feed =
+      new BookingChangeFeed(new ChangeFeedProperties(3, 8, Duration.ofSeconds(15)), registry);
+
+  @Test
+  void shouldReplayChangesAfterCursorAndContinueLive() throws Exception {
+    feed.onBookingChanged(event(ChangeType.CREATED, 1l, 10l));
+    feed.onBookingChanged(event(ChangeType.CREATED, 2l, 20l));
+    feed.onBookingChanged(event(ChangeType.CANCELLED, 1l, 10l));
+    long cursor = feed.changes(null, 0l).blockFirst(Duration.ofSeconds(1)).sequence() - 1;
+
+    var received = feed.changes(10l, cursor).take(3).collectList().toFuture();
+    feed.onBookingChanged(event(ChangeType.DELETED, 3l, 30l));
+    feed.onBookingChanged(event(ChangeType.REBOOKED, 1l, 10l));
+
+    assertThat(received.get(5, TimeUnit.SECONDS))
+        .extracting(BookingChange::type)
+        .containsExactly(ChangeType.CREATED, ChangeType.CANCELLED, ChangeType.REBOOKED);
+    assertThat(registry.get("booking.changes.subscribers").gauge().value()).isZero();
+  }
+
+  @Test
+  void shouldStartLiveWithoutCursorAndFlagEvictedCursors() throws Exception {
+    feed.onBookingChanged(event(ChangeType.CREATED, 1l, 10l));
+    long first = feed.changes(null, 0l).blockFirst(Duration.ofSeconds(1)).sequence();
+    var received = feed.changes(null, null).take(3).collectList().toFuture();
+    for (long id = 2; id <= 4; id++) {
+      feed.onBookingChanged(event(ChangeType.CREATED, id, 10l));
+    }
+
+    assertThat(received.get(5, TimeUnit.SECONDS))
+        .extracting(BookingChange::bookingId)
+        .containsExactly(2l, 3l, 4l);
+    assertThat(feed.isResumable(first)).isTrue();
+    assertThat(feed.isResumable(first - 1)).isFalse();
+    assertThat(feed.isResumable(first + 100)).isFalse();
+  }
+
+  @Test
+  void shouldRejectCursorsIssuedByAnotherInstance() {
+    feed.onBookingChanged(event(ChangeType.CREATED, 1l, 10l));
+    long first = feed.changes(null, 0l).blockFirst(Duration.ofSeconds(1)).sequence();
+
+    assertThat(feed.isResumable(first)).isTrue();
+    assertThat(feed.isResumable(first ^ (1l << 36))).isFalse();
+    assertThat(feed.isResumable(first ^ (1l << 51))).isFalse();
+    assertThat(first).isLessThan(1l << 53);
+  }
+
+  @Test
+  void shouldDropSubscriberThatFallsBehind() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch failed = new CountDownLatch(1);
+    Disposable subscription =
+        feed.changes(null, null)
+            .subscribe(
+                change -> {
+                  try {
+                    release.await(5, TimeUnit.SECONDS);
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                },
+                error -> failed.countDown());
+
+    for (long id = 1; id <= 100; id++) {
+      feed.onBookingChanged(event(ChangeType.CREATED, id, 10l));
+    }
+    release.countDown();
+
+    assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(registry.get("booking.changes.dropped").counter().count()).isEqualTo(1);
+    assertThat(registry.get("booking.changes.subscribers").gauge().value()).isZero();
+    subscription.dispose();
+  }
+
+  @Test
+  void shouldNotCountCancelledSubscriberAsDropped() {
+    feed.changes(null, null).subscribe().dispose();
+
+    feed.onBookingChanged(event(ChangeType.CREATED, 1l, 10l));
+
+    assertThat(registry.get("booking.changes.dropped").counter().count()).isZero();
+    assertThat(registry.get("booking.changes.subscribers").gauge().value()).isZero();
+  }
+
+  private static BookingChangedEvent event(ChangeType type, Long bookingId, Long propertyId) {
+    return new BookingChangedEvent(
+        type, bookingId, propertyId, LocalDate.now(), LocalDate.now(), BookingType.RESERVATION);
+  }
+}
@@ -0,0 +1,64 @@
+package dev.eerturk.booking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.eerturk.booking.web.CreateBookingRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class BookingHoldsTest {
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final BookingHolds holds =
+      new BookingHolds(
+          new HoldProperties(Duration.ofMinutes(10), Duration.ofSeconds(1), 64), meterRegistry);
+
+  private final CreateBookingRequest command =
+      CreateBookingRequest.of(1l, LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), 5l);
+
+  @BeforeEach
+  void setUp() {
+    TransactionSynchronizationManager.initSynchronization();
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.clearSynchronization();
+  }
+
+  @Test
+  void shouldRestoreHoldWhenConfirmationRollsBack() {
+    var hold = holds.place(command);
+
+    assertThat(holds.takeUntilCompletion(hold.id(), "confirmed")).contains(hold);
+    assertThat(holds.find(hold.id())).isEmpty();
+
+    complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+    assertThat(holds.find(hold.id())).contains(hold);
+    assertThat(meterRegistry.find("booking.holds").tag("outcome", "confirmed").counter()).isNull();
+  }
+
+  @Test
+  void shouldCountConfirmationOnlyAfterCommit() {
+    var hold = holds.place(command);
+
+    holds.takeUntilCompletion(hold.id(), "confirmed");
+    complete(TransactionSynchronization.STATUS_COMMITTED);
+
+    assertThat(holds.find(hold.id())).isEmpty();
+    assertThat(meterRegistry.get("booking.holds").tag("outcome", "confirmed").counter().count())
+        .isEqualTo(1);
+  }
+
+  private static void complete(int status) {
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(synchronization -> synchronization.afterCompletion(status));
+  }
+}
@@ -4,24 +4,45 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
+import dev.eerturk.booking.BookingConflictException;
 import dev.eerturk.booking.BookingIsNotDeleteAbleException;
 import dev.eerturk.booking.BookingNotFoundException;
+import dev.eerturk.booking.HoldNotFoundException;
 import dev.eerturk.booking.ReservationAlreadyExistsException;
+import dev.eerturk.booking.dao.ArchivedBookingRepository;
 import dev.eerturk.booking.dao.BookingDateRepository;
 import dev.eerturk.booking.dao.BookingRepository;
+import dev.eerturk.booking.dao.ShardContext;
+import dev.eerturk.booking.dao.ShardingProperties;
+import dev.eerturk.booking.dto.BatchItemStatus;
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.dto.BookingHold;
+import dev.eerturk.booking.dto.BulkRejection;
 import dev.eerturk.booking.model.Booking;
 import dev.eerturk.booking.model.BookingType;
 import dev.eerturk.booking.model.Status;
+import dev.eerturk.booking.web.BulkBookingRequest;
 import dev.eerturk.booking.web.CreateBookingRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceTest {
@@ -30,9 +51,46 @@ class BookingServiceTest {
 
   @Mock private BookingRepository repository;
 
+  @Mock private ArchivedBookingRepository archivedBookingRepository;
+
   @Mock private BookingDateRepository bookingDateRepository;
 
-  @InjectMocks private BookingService service;
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final BookingHolds bookingHolds =
+      new BookingHolds(
+          new HoldProperties(Duration.ofMinutes(10), Duration.ofSeconds(1), 64), meterRegistry);
+
+  private BookingService service;
+
+  @BeforeEach
+  void setUp() {
+    service = serviceWith(new ShardRouter(new ShardingProperties(false, List.of(), 128, Map.of())));
+  }
+
+  private BookingService serviceWith(ShardRouter shardRouter) {
+    var occupancyStore = new DailyOccupancyStore(bookingDateRepository);
+    return new BookingService(
+        repository,
+        archivedBookingRepository,
+        occupancyStore,
+        new PropertyLocks(new LockingProperties(16)),
+        new BookingCache(
+            repository,
+            shardRouter,
+            new BookingCacheProperties(100, Duration.ofMinutes(1)),
+            new SimpleMeterRegistry()),
+        bookingHolds,
+        shardRouter,
+        new OptimisticRetry(
+            new RetryProperties(3, Duration.ofMillis(1), Duration.ofMillis(5)), meterRegistry),
+        transactionManager,
+        eventPublisher);
+  }
 
   @Test
   void shouldThrowReservationAlreadyExistsWhenRequestIsBlockAndDateRangeHasReservation() {
@@ -50,7 +108,8 @@ class BookingServiceTest {
                 "A reservation with property ID %d between %s and %s is not available.",
                 toCreate.propertyId(),
                 DATE_FORMATTER.format(toCreate.startDate()),
-                DATE_FORMATTER.format(toCreate.endDate())));
+                DATE_FORMATTER.format(toCreate.endDate())))
+        .satisfies(rejection -> assertThat(rejection.getStackTrace()).isEmpty());
     verifyNoInteractions(repository);
   }
 
@@ -71,6 +130,16 @@ class BookingServiceTest {
     verifyNoInteractions(repository);
   }
 
+  @Test
+  void shouldThrowReservationAlreadyExistsWhenDatabaseRejectsReservedDates() {
+    var toCreate = CreateBookingRequest.of(1l, LocalDate.now(), LocalDate.now(), 3l);
+    doThrow(DataIntegrityViolationException.class).when(repository).flush();
+
+    assertThatThrownBy(() -> service.create(toCreate))
+        .isInstanceOf(ReservationAlreadyExistsException.class);
+    verifyNoInteractions(eventPublisher);
+  }
+
   @Test
   void shouldCreateReservationWhenDateRangeIsAvailable() {
     var toCreate = CreateBookingRequest.of(1l, LocalDate.now(), LocalDate.now(), null);
@@ -157,6 +226,113 @@ class BookingServiceTest {
             });
   }
 
+  @Test
+  void shouldRejectBookingsOverlappingALiveHoldWithoutWriting() {
+    var start = LocalDate.now().plusDays(5);
+    BookingHold hold = service.hold(CreateBookingRequest.of(1l, start, start.plusDays(2), 7l));
+
+    assertThatThrownBy(
+            () ->
+                service.create(
+                    CreateBookingRequest.of(1l, start.plusDays(1), start.plusDays(1), null)))
+        .isInstanceOf(ReservationAlreadyExistsException.class);
+    assertThatThrownBy(() -> service.hold(CreateBookingRequest.of(1l, start, start, 8l)))
+        .isInstanceOf(ReservationAlreadyExistsException.class);
+    verify(repository, never()).save(any());
+
+    service.releaseHold(hold.id());
+
+    assertThat(bookingHolds.size()).isZero();
+    assertThatThrownBy(() -> service.releaseHold(hold.id()))
+        .isInstanceOf(HoldNotFoundException.class);
+  }
+
+  @Test
+  void shouldPersistBookingOnlyWhenHoldIsConfirmed() {
+    var start = LocalDate.now().plusDays(5);
+    BookingHold hold = service.hold(CreateBookingRequest.of(1l, start, start.plusDays(2), 7l));
+
+    BookingDetailResponse confirmed = service.confirmHold(hold.id());
+
+    ArgumentCaptor<Booking> captor = ArgumentCaptor.forClass(Booking.class);
+    verify(repository).save(captor.capture());
+    assertThat(captor.getValue().getDates()).hasSize(3);
+    assertThat(confirmed.propertyId()).isEqualTo(1l);
+    assertThat(confirmed.guestId()).isEqualTo(7l);
+    assertThat(bookingHolds.size()).isZero();
+  }
+
+  @Test
+  void shouldForgetExpiredHolds() {
+    var start = LocalDate.now().plusDays(5);
+    BookingHold hold = service.hold(CreateBookingRequest.of(1l, start, start, 7l));
+
+    bookingHolds.expire(System.nanoTime() + Duration.ofMinutes(11).toNanos());
+
+    assertThat(bookingHolds.size()).isZero();
+    assertThatThrownBy(() -> service.confirmHold(hold.id()))
+        .isInstanceOf(HoldNotFoundException.class);
+    service.create(CreateBookingRequest.of(1l, start, start, 8l));
+  }
+
+  @Test
+  void shouldCheckStatusAgainstDatabaseWhenCachedStatusIsStale() {
+    when(repository.findDetailById(999l))
+        .thenReturn(
+            Optional.of(
+                new BookingDetailResponse(
+                    999l, 1l, LocalDate.now(), LocalDate.now(), 5l, Status.CANCEL)));
+    service.findById(999l, false);
+    when(repository.findByIdAndStatus(999l, Status.ACTIVE))
+        .thenReturn(
+            Optional.of(bulkBooking(999l, Status.ACTIVE, LocalDate.now(), LocalDate.now())));
+
+    service.cancel(999l);
+
+    verify(repository).findByIdAndStatus(999l, Status.ACTIVE);
+    verify(eventPublisher).publishEvent(any(Object.class));
+  }
+
+  @Test
+  void shouldRereadAndRetryCancelOnVersionConflict() {
+    when(repository.findByIdAndStatus(999l, Status.ACTIVE))
+        .thenReturn(Optional.of(bulkBooking(999l, Status.ACTIVE, LocalDate.now(), LocalDate.now())))
+        .thenReturn(
+            Optional.of(bulkBooking(999l, Status.ACTIVE, LocalDate.now(), LocalDate.now())));
+    doThrow(new ObjectOptimisticLockingFailureException(Booking.class, 999l))
+        .doNothing()
+        .when(repository)
+        .flush();
+
+    service.cancel(999l);
+
+    verify(repository, times(2)).findByIdAndStatus(999l, Status.ACTIVE);
+    verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+    assertThat(
+            meterRegistry
+                .get("booking.retries")
+                .tags("operation", "cancel", "outcome", "retried")
+                .counter()
+                .count())
+        .isOne();
+  }
+
+  @Test
+  void shouldRejectWithConflictWhenRetriesAreExhausted() {
+    when(repository.findByIdAndStatus(999l, Status.ACTIVE))
+        .thenAnswer(
+            invocation ->
+                Optional.of(bulkBooking(999l, Status.ACTIVE, LocalDate.now(), LocalDate.now())));
+    doThrow(new ObjectOptimisticLockingFailureException(Booking.class, 999l))
+        .when(repository)
+        .flush();
+
+    assertThatThrownBy(() -> service.cancel(999l)).isInstanceOf(BookingConflictException.class);
+
+    verify(repository, times(3)).findByIdAndStatus(999l, Status.ACTIVE);
+    verify(eventPublisher, never()).publishEvent(any(Object.class));
+  }
+
   @Test
   void shouldThrowBookingNotFoundExceptionWhenBookingStatusIsNotCancelOnRebook() {
     Booking booking = new Booking();
@@ -204,4 +380,221 @@ class BookingServiceTest {
                 DATE_FORMATTER.format(booking.getEndDate())));
     verifyNoMoreInteractions(repository);
   }
+
+  @Test
+  void shouldRejectConflictsWithinBatchAndSaveTheRest() {
+    var reservation =
+        CreateBookingRequest.of(1l, LocalDate.now().plusDays(1), LocalDate.now().plusDays(5), 333l);
+    var overlappingBlock =
+        CreateBookingRequest.of(1l, LocalDate.now().plusDays(5), LocalDate.now().plusDays(8), null);
+    var block =
+        CreateBookingRequest.of(2l, LocalDate.now().plusDays(5), LocalDate.now().plusDays(8), null);
+    var overlappingBlockOnOtherProperty =
+        CreateBookingRequest.of(2l, LocalDate.now().plusDays(6), LocalDate.now().plusDays(9), null);
+    var invalidRange =
+        CreateBookingRequest.of(3l, LocalDate.now().plusDays(6), LocalDate.now().plusDays(5), null);
+
+    var results =
+        service.createAll(
+            List.of(
+                reservation,
+                overlappingBlock,
+                block,
+                overlappingBlockOnOtherProperty,
+                invalidRange));
+
+    assertThat(results)
+        .extracting(result -> result.status())
+        .containsExactly(
+            BatchItemStatus.CREATED,
+            BatchItemStatus.REJECTED,
+            BatchItemStatus.CREATED,
+            BatchItemStatus.CREATED,
+            BatchItemStatus.REJECTED);
+    assertThat(results.get(1).error())
+        .isEqualTo(
+            String.format(
+                "A reservation with property ID %d between %s and %s is not available.",
+                overlappingBlock.propertyId(),
+                DATE_FORMATTER.format(overlappingBlock.startDate()),
+                DATE_FORMATTER.format(overlappingBlock.endDate())));
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Iterable<Booking>> captor = ArgumentCaptor.forClass(Iterable.class);
+    verify(repository).saveAll(captor.capture());
+    assertThat(captor.getValue())
+        .hasSize(3)
+        .allSatisfy(toDB -> assertThat(toDB.getDates()).isNotEmpty());
+    verify(eventPublisher, times(3)).publishEvent(any(Object.class));
+  }
+
+  @Test
+  void shouldReportItemsOfFailedShardAsRejectedWhenOtherShardsCommitted() {
+    service =
+        serviceWith(
+            new ShardRouter(
+                new ShardingProperties(
+                    true,
+                    List.of(new ShardingProperties.Shard("jdbc:h2:mem:other", "sa", "")),
+                    128,
+                    Map.of(1l, 0, 2l, 1))));
+    doNothing()
+        .doThrow(new DataIntegrityViolationException("reserved_date"))
+        .when(repository)
+        .flush();
+
+    var results =
+        service.createAll(
+            List.of(
+                CreateBookingRequest.of(
+                    1l, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), 333l),
+                CreateBookingRequest.of(
+                    2l, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), 333l)));
+
+    assertThat(results)
+        .extracting(result -> result.status())
+        .containsExactly(BatchItemStatus.CREATED, BatchItemStatus.REJECTED);
+    assertThat(results.get(1).error()).contains("[2]");
+  }
+
+  @Test
+  void shouldReportFailedShardOfBulkCancelWhenOtherShardsCommitted() {
+    service =
+        serviceWith(
+            new ShardRouter(
+                new ShardingProperties(
+                    true,
+                    List.of(new ShardingProperties.Shard("jdbc:h2:mem:other", "sa", "")),
+                    128,
+                    Map.of())));
+    var from = LocalDate.now().plusDays(1);
+    long onFirst = ShardContext.encode(1, 0);
+    long onSecond = ShardContext.encode(1, 1);
+    when(repository.findAllByIdInAndStatusOrderById(List.of(onFirst), Status.ACTIVE))
+        .thenReturn(List.of(bulkBooking(onFirst, Status.ACTIVE, from, from)));
+    when(repository.findAllByIdInAndStatusOrderById(List.of(onSecond), Status.ACTIVE))
+        .thenThrow(new QueryTimeoutException("shard 1 is down"));
+    when(repository.updateStatus(List.of(onFirst), Status.ACTIVE, Status.CANCEL)).thenReturn(1);
+
+    var result = service.cancelAll(BulkBookingRequest.of(List.of(onFirst, onSecond)));
+
+    assertThat(result.ids()).containsExactly(onFirst);
+    assertThat(result.rejected())
+        .containsExactly(new BulkRejection(List.of(onSecond), "shard 1 is down"));
+  }
+
+  @Test
+  void shouldCancelBookingsInBulkWithSetBasedStatements() {
+    var from = LocalDate.now().plusDays(1);
+    var to = LocalDate.now().plusDays(30);
+    List<Booking> bookings =
+        List.of(
+            bulkBooking(1l, Status.ACTIVE, from, from.plusDays(3)),
+            bulkBooking(2l, Status.ACTIVE, from.plusDays(5), from.plusDays(8)));
+    when(repository.findAllOverlapping(222l, Status.ACTIVE, from, to)).thenReturn(bookings);
+    when(repository.updateStatus(List.of(1l, 2l), Status.ACTIVE, Status.CANCEL)).thenReturn(2);
+
+    var result = service.cancelAll(BulkBookingRequest.of(222l, from, to));
+
+    assertThat(result.affected()).isEqualTo(2);
+    assertThat(result.ids()).containsExactly(1l, 2l);
+    verify(bookingDateRepository).deleteByBookingIds(List.of(1l, 2l));
+    verify(repository).updateStatus(List.of(1l, 2l), Status.ACTIVE, Status.CANCEL);
+    verify(repository, never()).save(any());
+    verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+  }
+
+  @Test
+  void shouldRereadBulkCancelWhenStatusUpdateMissesRows() {
+    var from = LocalDate.now().plusDays(1);
+    when(repository.findAllByIdInAndStatusOrderById(List.of(1l, 2l), Status.ACTIVE))
+        .thenReturn(
+            List.of(
+                bulkBooking(1l, Status.ACTIVE, from, from),
+                bulkBooking(2l, Status.ACTIVE, from, from)))
+        .thenReturn(List.of(bulkBooking(1l, Status.ACTIVE, from, from)));
+    when(repository.updateStatus(List.of(1l, 2l), Status.ACTIVE, Status.CANCEL)).thenReturn(1);
+    when(repository.updateStatus(List.of(1l), Status.ACTIVE, Status.CANCEL)).thenReturn(1);
+
+    var result = service.cancelAll(BulkBookingRequest.of(List.of(1l, 2l)));
+
+    assertThat(result.ids()).containsExactly(1l);
+    verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+    assertThat(
+            meterRegistry
+                .get("booking.retries")
+                .tags("operation", "cancelAll", "outcome", "retried")
+                .counter()
+                .count())
+        .isOne();
+  }
+
+  @Test
+  void shouldRejectBulkRebookWhenBookingsOverlapEachOther() {
+    var from = LocalDate.now().plusDays(1);
+    List<Booking> bookings =
+        List.of(
+            bulkBooking(1l, Status.CANCEL, from, from.plusDays(3)),
+            bulkBooking(2l, Status.CANCEL, from.plusDays(3), from.plusDays(8)));
+    when(repository.findAllByIdInAndStatusOrderById(List.of(1l, 2l), Status.CANCEL))
+        .thenReturn(bookings);
+    when(repository.findConflictingPropertyIds(List.of(1l, 2l))).thenReturn(List.of());
+
+    assertThatThrownBy(() -> service.rebookAll(BulkBookingRequest.of(List.of(1l, 2l))))
+        .isInstanceOf(ReservationAlreadyExistsException.class)
+        .hasMessage("One or more reservations with property IDs [222] are not available.");
+    verify(repository, never()).updateStatus(any(), any(), any());
+    verifyNoInteractions(bookingDateRepository, eventPublisher);
+  }
+
+  private static Booking bulkBooking(
+      Long id, Status status, LocalDate startDate, LocalDate endDate) {
+    return new Booking()
+        .setId(id)
+        .setPropertyId(222l)
+        .setGuestId(333l)
+        .setStatus(status)
+        .setStartDate(startDate)
+        .setEndDate(endDate)
+        .setBookingType(BookingType.RESERVATION);
+  }
+
+  @Test
+  void shouldServeRepeatedLookupsFromCache() {
+    when(repository.findDetailById(7l)).thenReturn(Optional.of(detail(7l)));
+
+    assertThat(service.findById(7l, false)).isEqualTo(detail(7l));
+    assertThat(service.findById(7l, false)).isEqualTo(detail(7l));
+
+    verify(repository, times(1)).findDetailById(7l);
+  }
+
+  @Test
+  void shouldOnlyLookUpArchivedBookingsWhenAsked() {
+    when(archivedBookingRepository.findDetailById(8l)).thenReturn(Optional.of(detail(8l)));
+
+    assertThatThrownBy(() -> service.findById(8l, false))
+        .isInstanceOf(BookingNotFoundException.class);
+    assertThat(service.findById(8l, true)).isEqualTo(detail(8l));
+
+    verify(archivedBookingRepository, times(1)).findDetailById(8l);
+  }
+
+  @Test
+  void shouldReadAllBookingsInKeysetChunks() {
+    when(repository.findPage(0l, PageRequest.ofSize(2)))
+        .thenReturn(List.of(detail(1l), detail(2l)));
+    when(repository.findPage(2l, PageRequest.ofSize(2)))
+        .thenReturn(List.of(detail(3l), detail(4l)));
+    when(repository.findPage(4l, PageRequest.ofSize(2))).thenReturn(List.of(detail(5l)));
+
+    List<Long> ids = new ArrayList<>();
+    service.forEachBooking(0l, 2, booking -> ids.add(booking.id()));
+
+    assertThat(ids).containsExactly(1l, 2l, 3l, 4l, 5l);
+  }
+
+  private static BookingDetailResponse detail(Long id) {
+    return new BookingDetailResponse(id, 1l, LocalDate.now(), LocalDate.now(), null, Status.ACTIVE);
+  }
 }
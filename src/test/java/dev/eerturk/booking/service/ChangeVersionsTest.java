@@ -0,0 +1,45 @@
+package dev.eerturk.booking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.eerturk.booking.event.BookingChangedEvent;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+
+class ChangeVersionsTest {
+  @Test
+  void shouldBumpVersionsOnlyAfterEveryCacheIsInvalidated() throws Exception {
+    int versions = order(ChangeVersions.class);
+
+    for (Class<?> cache :
+        List.of(
+            BookingCache.class,
+            AvailabilityCalendar.class,
+            AvailabilitySearch.class,
+            PropertyWindows.class)) {
+      assertThat(order(cache)).as(cache.getSimpleName()).isLessThan(versions);
+    }
+  }
+
+  private static int order(Class<?> listener) throws NoSuchMethodException {
+    Order order =
+        AnnotationUtils.findAnnotation(
+            listener.getMethod("onBookingChanged", BookingChangedEvent.class), Order.class);
+    return order != null ? order.value() : Ordered.LOWEST_PRECEDENCE;
+  }
+
+  @Test
+  void shouldExpireTagsAfterTheMaxAgeEvenWithoutLocalChanges() throws Exception {
+    ChangeVersions versions =
+        new ChangeVersions(new ChangeVersionProperties(10, Duration.ofMillis(1)));
+    String tag = versions.globalTag("json");
+
+    Thread.sleep(5);
+
+    assertThat(versions.globalTag("json")).isNotEqualTo(tag);
+  }
+}
@@ -0,0 +1,117 @@
+package dev.eerturk.booking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import dev.eerturk.booking.InvalidIdempotencyKeyException;
+import dev.eerturk.booking.dao.IdempotencyRecordRepository;
+import dev.eerturk.booking.dao.ShardingProperties;
+import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.model.IdempotencyRecord;
+import dev.eerturk.booking.model.Status;
+import dev.eerturk.booking.web.CreateBookingRequest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentBookingServiceTest {
+  private static final CreateBookingRequest REQUEST =
+      CreateBookingRequest.of(1l, LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), 5l);
+  private static final BookingDetailResponse RESPONSE =
+      new BookingDetailResponse(
+          42l,
+          REQUEST.propertyId(),
+          REQUEST.startDate(),
+          REQUEST.endDate(),
+          REQUEST.guestId(),
+          Status.ACTIVE);
+
+  @Mock private BookingService bookingService;
+
+  @Mock private IdempotencyRecordRepository repository;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private IdempotentBookingService service;
+
+  @BeforeEach
+  void setUp() {
+    service =
+        new IdempotentBookingService(
+            bookingService,
+            repository,
+            new IdempotencyProperties(100, Duration.ofHours(1), Duration.ofHours(1), 64),
+            new ShardRouter(new ShardingProperties(false, List.of(), 128, Map.of())),
+            transactionManager);
+  }
+
+  @Test
+  void shouldReplayStoredResponseForRepeatedKey() {
+    when(bookingService.create(REQUEST)).thenReturn(RESPONSE);
+
+    assertThat(service.create("key-1", REQUEST)).isEqualTo(RESPONSE);
+    assertThat(service.create("key-1", REQUEST)).isEqualTo(RESPONSE);
+
+    verify(bookingService, times(1)).create(REQUEST);
+    verify(repository).save(any(IdempotencyRecord.class));
+  }
+
+  @Test
+  void shouldLetConcurrentDuplicateWaitForInFlightResult() throws Exception {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    when(bookingService.create(REQUEST))
+        .thenAnswer(
+            invocation -> {
+              started.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return RESPONSE;
+            });
+
+    var first = CompletableFuture.supplyAsync(() -> service.create("key-2", REQUEST));
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    var duplicate = CompletableFuture.supplyAsync(() -> service.create("key-2", REQUEST));
+    release.countDown();
+
+    assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(RESPONSE);
+    assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(RESPONSE);
+    verify(bookingService, times(1)).create(REQUEST);
+  }
+
+  @Test
+  void shouldReplayPersistedResponseWithoutCreating() {
+    when(repository.findById("key-3"))
+        .thenReturn(Optional.of(IdempotencyRecord.of("key-3", RESPONSE, Instant.now())));
+
+    assertThat(service.create("key-3", REQUEST)).isEqualTo(RESPONSE);
+
+    verifyNoInteractions(bookingService);
+  }
+
+  @Test
+  void shouldRejectKeyReusedForDifferentBooking() {
+    when(bookingService.create(REQUEST)).thenReturn(RESPONSE);
+    service.create("key-4", REQUEST);
+
+    var other =
+        CreateBookingRequest.of(2l, REQUEST.startDate(), REQUEST.endDate(), REQUEST.guestId());
+    assertThatThrownBy(() -> service.create("key-4", other))
+        .isInstanceOf(InvalidIdempotencyKeyException.class)
+        .hasMessage("The idempotency key key-4 was already used for a different booking.");
+    verify(bookingService, never()).create(other);
+  }
+}
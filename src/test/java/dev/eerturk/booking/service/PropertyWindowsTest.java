@@ -0,0 +1,105 @@
+package dev.eerturk.booking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import dev.eerturk.booking.InvalidDateRangeException;
+import dev.eerturk.booking.dao.ShardingProperties;
+import dev.eerturk.booking.dto.AvailabilityWindow;
+import dev.eerturk.booking.dto.OccupiedRange;
+import dev.eerturk.booking.event.BookingChangedEvent;
+import dev.eerturk.booking.event.ChangeType;
+import dev.eerturk.booking.model.BookingType;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyWindowsTest {
+  private static final Long PROPERTY_ID = 42l;
+  private static final LocalDate TODAY = LocalDate.now();
+
+  @Mock private OccupancyStore occupancyStore;
+
+  private PropertyWindows windows;
+
+  @BeforeEach
+  void setUp() {
+    windows =
+        new PropertyWindows(
+            occupancyStore,
+            new ShardRouter(new ShardingProperties(false, List.of(), 128, Map.of())),
+            new PropertyWindowProperties(10, Duration.ofHours(1), 366, 366));
+  }
+
+  @Test
+  void shouldFindFirstWindowLongEnoughAfterDate() {
+    givenOccupied(
+        range(2, 4, BookingType.RESERVATION),
+        range(5, 5, BookingType.BLOCK),
+        range(8, 10, BookingType.RESERVATION),
+        range(14, 20, BookingType.RESERVATION));
+
+    assertThat(windows.nextWindow(PROPERTY_ID, TODAY.plusDays(3), 3)).isEqualTo(window(11, 13));
+    assertThat(windows.nextWindow(PROPERTY_ID, TODAY.plusDays(3), 2)).isEqualTo(window(6, 7));
+    assertThat(windows.nextWindow(PROPERTY_ID, TODAY.plusDays(3), 7)).isEqualTo(window(21, 27));
+    assertThat(windows.nextWindow(PROPERTY_ID, TODAY.minusDays(10), 2)).isEqualTo(window(0, 1));
+    verify(occupancyStore, times(1)).findOccupiedRanges(PROPERTY_ID, TODAY);
+  }
+
+  @Test
+  void shouldListGapsShorterThanLimitBetweenBookings() {
+    givenOccupied(
+        range(2, 4, BookingType.RESERVATION),
+        range(6, 6, BookingType.RESERVATION),
+        range(9, 10, BookingType.BLOCK),
+        range(20, 22, BookingType.RESERVATION),
+        range(24, 25, BookingType.RESERVATION));
+
+    assertThat(windows.gaps(PROPERTY_ID, TODAY, TODAY.plusDays(30), 3))
+        .containsExactly(window(5, 5), window(7, 8), window(23, 23));
+    assertThat(windows.gaps(PROPERTY_ID, TODAY.plusDays(6), TODAY.plusDays(22), 3))
+        .containsExactly(window(7, 8));
+  }
+
+  @Test
+  void shouldReloadPropertyAfterBookingChange() {
+    givenOccupied(range(0, 2, BookingType.RESERVATION));
+    windows.nextWindow(PROPERTY_ID, TODAY, 1);
+
+    windows.onBookingChanged(
+        new BookingChangedEvent(
+            ChangeType.CREATED, 1l, PROPERTY_ID, TODAY, TODAY, BookingType.RESERVATION));
+    windows.nextWindow(PROPERTY_ID, TODAY, 1);
+
+    verify(occupancyStore, times(2)).findOccupiedRanges(PROPERTY_ID, TODAY);
+  }
+
+  @Test
+  void shouldRejectInvalidRanges() {
+    assertThatThrownBy(() -> windows.gaps(PROPERTY_ID, TODAY.plusDays(2), TODAY, 3))
+        .isInstanceOf(InvalidDateRangeException.class);
+    assertThatThrownBy(() -> windows.nextWindow(PROPERTY_ID, TODAY, 0))
+        .isInstanceOf(InvalidDateRangeException.class);
+    verifyNoInteractions(occupancyStore);
+  }
+
+  private void givenOccupied(OccupiedRange... ranges) {
+    when(occupancyStore.findOccupiedRanges(PROPERTY_ID, TODAY)).thenReturn(List.of(ranges));
+  }
+
+  private static OccupiedRange range(int from, int to, BookingType bookingType) {
+    return new OccupiedRange(TODAY.plusDays(from), TODAY.plusDays(to), bookingType);
+  }
+
+  private static AvailabilityWindow window(int from, int to) {
+    return new AvailabilityWindow(TODAY.plusDays(from), TODAY.plusDays(to), to - from + 1);
+  }
+}
@@ -0,0 +1,49 @@
+package dev.eerturk.booking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ReactivePropertyLocksTest {
+  private static final Long PROPERTY_ID = 42l;
+
+  private final ReactivePropertyLocks locks = new ReactivePropertyLocks(new LockingProperties(16));
+
+  @Test
+  void shouldRunWorkForOnePropertyOneAtATime() {
+    Sinks.One<String> holder = Sinks.one();
+    AtomicBoolean second = new AtomicBoolean();
+    locks.withLock(PROPERTY_ID, holder.asMono()).subscribe();
+    locks.withLock(PROPERTY_ID, Mono.fromRunnable(() -> second.set(true))).subscribe();
+
+    assertThat(second).isFalse();
+
+    holder.tryEmitValue("done");
+
+    assertThat(second).isTrue();
+  }
+
+  @Test
+  void shouldKeepHolderExclusiveWhenQueuedWaiterIsCancelled() {
+    Sinks.One<String> holder = Sinks.one();
+    AtomicBoolean cancelled = new AtomicBoolean();
+    AtomicBoolean third = new AtomicBoolean();
+    locks.withLock(PROPERTY_ID, holder.asMono()).subscribe();
+    Disposable waiter =
+        locks.withLock(PROPERTY_ID, Mono.fromRunnable(() -> cancelled.set(true))).subscribe();
+    locks.withLock(PROPERTY_ID, Mono.fromRunnable(() -> third.set(true))).subscribe();
+
+    waiter.dispose();
+
+    assertThat(third).isFalse();
+
+    holder.tryEmitValue("done");
+
+    assertThat(third).isTrue();
+    assertThat(cancelled).isFalse();
+  }
+}
@@ -0,0 +1,76 @@
+package dev.eerturk.booking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import dev.eerturk.booking.dao.ArchivedBookingRepository;
+import dev.eerturk.booking.dao.BookingRepository;
+import dev.eerturk.booking.dao.ShardLayoutRepository;
+import dev.eerturk.booking.dao.ShardingProperties;
+import dev.eerturk.booking.model.ShardLayout;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ShardLayoutVerifierTest {
+  @Mock private ShardLayoutRepository shardLayoutRepository;
+
+  @Mock private BookingRepository bookingRepository;
+
+  @Mock private ArchivedBookingRepository archivedBookingRepository;
+
+  private ShardLayoutVerifier verifier;
+
+  @BeforeEach
+  void setUp() {
+    verifier =
+        new ShardLayoutVerifier(
+            shardLayoutRepository,
+            bookingRepository,
+            archivedBookingRepository,
+            new ShardRouter(new ShardingProperties(false, List.of(), 128, Map.of())));
+  }
+
+  @Test
+  void shouldRecordLayoutOnFirstStart() {
+    when(shardLayoutRepository.findById(ShardLayout.CURRENT)).thenReturn(Optional.empty());
+
+    verifier.verify();
+
+    ArgumentCaptor<ShardLayout> saved = ArgumentCaptor.forClass(ShardLayout.class);
+    verify(shardLayoutRepository).save(saved.capture());
+    assertThat(saved.getValue().getLayout()).isEqualTo("shards=1");
+    verifyNoInteractions(bookingRepository);
+  }
+
+  @Test
+  void shouldFailWhenLayoutChangedWhileBookingsExist() {
+    when(shardLayoutRepository.findById(ShardLayout.CURRENT))
+        .thenReturn(Optional.of(new ShardLayout(ShardLayout.CURRENT, "shards=3", Instant.now())));
+    when(bookingRepository.count()).thenReturn(1l);
+
+    assertThatThrownBy(() -> verifier.verify())
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("[shards=3] to [shards=1]");
+    verify(shardLayoutRepository, never()).save(any());
+  }
+
+  @Test
+  void shouldAcceptLayoutChangeOnEmptyShards() {
+    when(shardLayoutRepository.findById(ShardLayout.CURRENT))
+        .thenReturn(Optional.of(new ShardLayout(ShardLayout.CURRENT, "shards=3", Instant.now())));
+
+    verifier.verify();
+
+    verify(shardLayoutRepository).save(any());
+  }
+}
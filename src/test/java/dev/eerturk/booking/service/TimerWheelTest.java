@@ -0,0 +1,41 @@
+package dev.eerturk.booking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+  private static final long TICK = Duration.ofSeconds(1).toNanos();
+
+  private final TimerWheel<String> wheel = new TimerWheel<>(Duration.ofSeconds(1), 4, 0);
+
+  @Test
+  void shouldExpireItemsOnlyOnceTheirDeadlineTickHasPassed() {
+    wheel.schedule("soon", 2 * TICK);
+    wheel.schedule("later", 6 * TICK);
+
+    assertThat(wheel.advance(TICK)).isEmpty();
+    assertThat(wheel.advance(2 * TICK)).containsExactly("soon");
+    assertThat(wheel.advance(5 * TICK)).isEmpty();
+    assertThat(wheel.advance(6 * TICK)).containsExactly("later");
+  }
+
+  @Test
+  void shouldCatchUpWhenAdvancedPastAFullRotation() {
+    wheel.schedule("first", TICK);
+    wheel.schedule("second", 3 * TICK);
+    wheel.schedule("future", 30 * TICK);
+
+    assertThat(wheel.advance(20 * TICK)).containsExactlyInAnyOrder("first", "second");
+    assertThat(wheel.advance(30 * TICK)).containsExactly("future");
+  }
+
+  @Test
+  void shouldExpireItemsScheduledInThePastOnTheNextAdvance() {
+    wheel.advance(10 * TICK);
+    wheel.schedule("late", 5 * TICK);
+
+    assertThat(wheel.advance(11 * TICK)).containsExactly("late");
+  }
+}
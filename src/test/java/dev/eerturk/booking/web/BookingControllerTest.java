@@ -1,25 +1,61 @@
 package dev.eerturk.booking.web;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.eerturk.booking.BookingNotFoundException;
 import dev.eerturk.booking.ReservationAlreadyExistsException;
+import dev.eerturk.booking.dto.BatchItemResult;
 import dev.eerturk.booking.dto.BookingDetailResponse;
+import dev.eerturk.booking.dto.BookingSearchCriteria;
+import dev.eerturk.booking.dto.BulkOperationResult;
+import dev.eerturk.booking.event.BookingChangedEvent;
+import dev.eerturk.booking.event.ChangeType;
+import dev.eerturk.booking.metrics.BookingMetrics;
+import dev.eerturk.booking.model.BookingType;
 import dev.eerturk.booking.model.Status;
 import dev.eerturk.booking.service.BookingService;
+import dev.eerturk.booking.service.ChangeVersionProperties;
+import dev.eerturk.booking.service.ChangeVersions;
+import dev.eerturk.booking.service.IdempotentBookingService;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
-@WebMvcTest(BookingController.class)
+@WebMvcTest(value = BookingController.class, properties = "booking.versions.max-age=1d")
+@EnableConfigurationProperties({
+  PaginationProperties.class,
+  ChangeVersionProperties.class,
+  RejectionLoggingProperties.class
+})
+@Import(ChangeVersions.class)
 class BookingControllerTest {
 
   @Autowired private MockMvc mockMvc;
@@ -27,6 +63,12 @@ class BookingControllerTest {
   @Autowired private ObjectMapper objectMapper;
   @MockBean private BookingService bookingService;
 
+  @Autowired private ChangeVersions changeVersions;
+
+  @MockBean private IdempotentBookingService idempotentBookingService;
+
+  @MockBean private BookingMetrics bookingMetrics;
+
   @Test
   void whenDeleteBookingNotExistingThenShouldReturn404() throws Exception {
     var id = 333l;
@@ -43,6 +85,32 @@ class BookingControllerTest {
     mockMvc.perform(put("/bookings/" + id + "/rebook")).andExpect(status().is4xxClientError());
   }
 
+  @Test
+  void whenCreateBookingConflictsThenShouldReturnProblemDetail() throws Exception {
+    var request =
+        CreateBookingRequest.of(1l, LocalDate.of(2030, 1, 2), LocalDate.of(2030, 1, 3), 666l);
+    given(bookingService.create(request))
+        .willThrow(
+            new ReservationAlreadyExistsException(
+                request.startDate(), request.endDate(), request.propertyId()));
+
+    mockMvc
+        .perform(
+            post("/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+        .andExpect(jsonPath("$.title").value("Reservation not available"))
+        .andExpect(jsonPath("$.propertyIds[0]").value(1))
+        .andExpect(jsonPath("$.startDate").value("2030-01-02"))
+        .andExpect(
+            jsonPath("$.detail")
+                .value(
+                    "A reservation with property ID 1 between Jan 2, 2030 and Jan 3, 2030 is not"
+                        + " available."));
+  }
+
   @Test
   void whenCreateBookingSuccessfullyThenShouldReturn200() throws Exception {
     var request = CreateBookingRequest.of(1l, LocalDate.now(), LocalDate.now(), 666l);
@@ -63,6 +131,29 @@ class BookingControllerTest {
         .andExpect(status().isCreated());
   }
 
+  @Test
+  void whenCreateBookingWithIdempotencyKeyThenShouldUseIdempotentService() throws Exception {
+    var request = CreateBookingRequest.of(1l, LocalDate.now(), LocalDate.now(), 666l);
+    var expected =
+        new BookingDetailResponse(
+            1111l,
+            request.propertyId(),
+            request.startDate(),
+            request.endDate(),
+            request.guestId(),
+            Status.ACTIVE);
+    given(idempotentBookingService.create("retry-1", request)).willReturn(expected);
+    mockMvc
+        .perform(
+            post("/bookings")
+                .header("Idempotency-Key", "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.id").value(1111));
+    verifyNoInteractions(bookingService);
+  }
+
   @Test
   void whenCreateBookingFailedOnValidationsThenShouldReturn400() throws Exception {
     var request = CreateBookingRequest.of(1l, null, LocalDate.now(), 666l);
@@ -73,4 +164,228 @@ class BookingControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
         .andExpect(status().is4xxClientError());
   }
+
+  @Test
+  void whenCreateBookingBatchThenShouldReturnResultPerItem() throws Exception {
+    var request = CreateBookingRequest.of(1l, LocalDate.now(), LocalDate.now(), 666l);
+    var response =
+        new BookingDetailResponse(
+            1111l,
+            request.propertyId(),
+            request.startDate(),
+            request.endDate(),
+            request.guestId(),
+            Status.ACTIVE);
+    given(bookingService.createAll(List.of(request, request)))
+        .willReturn(
+            List.of(
+                BatchItemResult.created(0, response),
+                BatchItemResult.rejected(1, "not available")));
+    mockMvc
+        .perform(
+            post("/bookings/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        CreateBookingBatchRequest.of(List.of(request, request)))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].status").value("CREATED"))
+        .andExpect(jsonPath("$[0].booking.id").value(1111))
+        .andExpect(jsonPath("$[1].status").value("REJECTED"));
+  }
+
+  @Test
+  void whenCreateBookingBatchHasInvalidItemThenShouldReturn400() throws Exception {
+    var request = CreateBookingRequest.of(1l, null, LocalDate.now(), 666l);
+    mockMvc
+        .perform(
+            post("/bookings/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        CreateBookingBatchRequest.of(List.of(request)))))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void whenCancelBookingsInBulkThenShouldReturnAffectedIds() throws Exception {
+    var request = BulkBookingRequest.of(1l, LocalDate.now(), LocalDate.now().plusDays(3));
+    given(bookingService.cancelAll(request)).willReturn(BulkOperationResult.of(List.of(7l, 8l)));
+    mockMvc
+        .perform(
+            put("/bookings/cancel")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.affected").value(2))
+        .andExpect(jsonPath("$.ids[1]").value(8));
+  }
+
+  @Test
+  void whenBulkRequestHasNoScopeThenShouldReturn400() throws Exception {
+    mockMvc
+        .perform(
+            put("/bookings/rebook")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        BulkBookingRequest.of(1l, LocalDate.now(), null))))
+        .andExpect(status().isBadRequest());
+    verifyNoInteractions(bookingService);
+  }
+
+  @Test
+  void whenGetBookingByIdThenShouldReturnBooking() throws Exception {
+    given(bookingService.findById(9l, false))
+        .willReturn(
+            new BookingDetailResponse(
+                9l, 1l, LocalDate.now(), LocalDate.now(), 666l, Status.ACTIVE));
+    mockMvc
+        .perform(get("/bookings/9"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(9))
+        .andExpect(jsonPath("$.status").value("ACTIVE"));
+  }
+
+  @Test
+  void whenBookingsAreUnchangedSinceETagThenShouldReturn304WithoutReading() throws Exception {
+    String etag =
+        mockMvc
+            .perform(get("/bookings"))
+            .andExpect(request().asyncStarted())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/bookings").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag));
+    mockMvc
+        .perform(
+            get("/bookings")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(request().asyncStarted());
+
+    changeVersions.onBookingChanged(
+        new BookingChangedEvent(
+            ChangeType.CREATED, 1l, 1l, LocalDate.now(), LocalDate.now(), BookingType.BLOCK));
+    mockMvc
+        .perform(get("/bookings").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(request().asyncStarted())
+        .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    verify(bookingService, timeout(1000).times(3)).forEachBooking(anyLong(), anyInt(), any());
+  }
+
+  @Test
+  void whenGetBookingByIdNotExistingThenShouldReturn404() throws Exception {
+    given(bookingService.findById(9l, false)).willThrow(new BookingNotFoundException(9l));
+    mockMvc.perform(get("/bookings/9")).andExpect(status().isNotFound());
+  }
+
+  @Test
+  void whenGetBookingsPageIsFullThenShouldLinkToNextPage() throws Exception {
+    var first = booking(10l);
+    var second = booking(11l);
+    given(bookingService.findPage(9l, 2)).willReturn(List.of(first, second));
+    mockMvc
+        .perform(get("/bookings").param("after", "9").param("limit", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[1].id").value(11))
+        .andExpect(
+            header().string("Link", "<http://localhost/bookings?after=11&limit=2>; rel=\"next\""));
+  }
+
+  @Test
+  void whenGetBookingsPageIsNotFullThenShouldNotLinkToNextPage() throws Exception {
+    given(bookingService.findPage(0l, 1000)).willReturn(List.of(booking(10l)));
+    mockMvc
+        .perform(get("/bookings").param("limit", "5000"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("Link"));
+  }
+
+  @Test
+  void whenGetBookingsThenShouldStreamJsonArray() throws Exception {
+    givenBookings(booking(1l), booking(2l));
+    MvcResult result =
+        mockMvc.perform(get("/bookings")).andExpect(request().asyncStarted()).andReturn();
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[1].id").value(2));
+  }
+
+  @Test
+  void whenGetBookingsAsNdjsonThenShouldStreamOneBookingPerLine() throws Exception {
+    givenBookings(booking(1l), booking(2l));
+    MvcResult result =
+        mockMvc
+            .perform(get("/bookings").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    String body =
+        mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    assertThat(body.lines().map(line -> readBooking(line).id())).containsExactly(1l, 2l);
+    assertThat(body).endsWith("\n");
+  }
+
+  @Test
+  void whenSearchBookingsThenShouldBindCriteriaAndUseDefaultLimit() throws Exception {
+    var criteria =
+        new BookingSearchCriteria(
+            1l,
+            666l,
+            Status.ACTIVE,
+            BookingType.RESERVATION,
+            LocalDate.of(2023, 6, 1),
+            LocalDate.of(2023, 6, 30));
+    given(bookingService.search(criteria, 0l, 100, false)).willReturn(List.of(booking(10l)));
+    mockMvc
+        .perform(
+            get("/bookings/search")
+                .param("propertyId", "1")
+                .param("guestId", "666")
+                .param("status", "ACTIVE")
+                .param("bookingType", "RESERVATION")
+                .param("from", "2023-06-01")
+                .param("to", "2023-06-30"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(10))
+        .andExpect(header().doesNotExist("Link"));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void givenBookings(BookingDetailResponse... bookings) {
+    doAnswer(
+            invocation -> {
+              List.of(bookings).forEach(invocation.getArgument(2, Consumer.class));
+              return null;
+            })
+        .when(bookingService)
+        .forEachBooking(eq(0l), anyInt(), any());
+  }
+
+  private BookingDetailResponse readBooking(String line) {
+    try {
+      return objectMapper.readValue(line, BookingDetailResponse.class);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static BookingDetailResponse booking(Long id) {
+    return new BookingDetailResponse(
+        id, 1l, LocalDate.now(), LocalDate.now().plusDays(1), 666l, Status.ACTIVE);
+  }
 }
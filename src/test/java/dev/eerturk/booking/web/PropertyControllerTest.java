@@ -0,0 +1,159 @@
+package dev.eerturk.booking.web;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import dev.eerturk.booking.InvalidDateRangeException;
+import dev.eerturk.booking.dto.AvailabilityCalendarResponse;
+import dev.eerturk.booking.dto.AvailabilityRun;
+import dev.eerturk.booking.dto.AvailabilitySearchResponse;
+import dev.eerturk.booking.dto.AvailabilityWindow;
+import dev.eerturk.booking.dto.DayState;
+import dev.eerturk.booking.metrics.BookingMetrics;
+import dev.eerturk.booking.service.AvailabilityCalendar;
+import dev.eerturk.booking.service.AvailabilitySearch;
+import dev.eerturk.booking.service.ChangeVersionProperties;
+import dev.eerturk.booking.service.ChangeVersions;
+import dev.eerturk.booking.service.PropertyWindows;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(value = PropertyController.class, properties = "booking.versions.max-age=1d")
+@EnableConfigurationProperties({ChangeVersionProperties.class, RejectionLoggingProperties.class})
+@Import(ChangeVersions.class)
+class PropertyControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private AvailabilityCalendar availabilityCalendar;
+
+  @MockBean private AvailabilitySearch availabilitySearch;
+
+  @MockBean private PropertyWindows propertyWindows;
+
+  @MockBean private BookingMetrics bookingMetrics;
+
+  @Test
+  void shouldReturnAvailabilityRuns() throws Exception {
+    var from = LocalDate.of(2030, 1, 1);
+    var to = LocalDate.of(2030, 1, 10);
+    given(availabilityCalendar.calendar(7l, from, to))
+        .willReturn(
+            new AvailabilityCalendarResponse(
+                7l,
+                from,
+                to,
+                List.of(
+                    new AvailabilityRun(from, LocalDate.of(2030, 1, 4), DayState.FREE),
+                    new AvailabilityRun(LocalDate.of(2030, 1, 5), to, DayState.RESERVED))));
+
+    mockMvc
+        .perform(get("/properties/7/availability?from=2030-01-01&to=2030-01-10"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.runs.length()").value(2))
+        .andExpect(jsonPath("$.runs[1].startDate").value("2030-01-05"))
+        .andExpect(jsonPath("$.runs[1].state").value("RESERVED"));
+  }
+
+  @Test
+  void shouldReturn400ForInvalidRange() throws Exception {
+    var from = LocalDate.of(2030, 1, 10);
+    var to = LocalDate.of(2030, 1, 1);
+    given(availabilityCalendar.calendar(7l, from, to))
+        .willThrow(new InvalidDateRangeException(from, to));
+
+    mockMvc
+        .perform(get("/properties/7/availability?from=2030-01-10&to=2030-01-01"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void shouldReturn304WhenPropertyIsUnchangedSinceETag() throws Exception {
+    var from = LocalDate.of(2030, 1, 1);
+    var to = LocalDate.of(2030, 1, 10);
+    given(availabilityCalendar.calendar(7l, from, to))
+        .willReturn(
+            new AvailabilityCalendarResponse(
+                7l, from, to, List.of(new AvailabilityRun(from, to, DayState.FREE))));
+
+    String etag =
+        mockMvc
+            .perform(get("/properties/7/availability?from=2030-01-01&to=2030-01-10"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(
+            get("/properties/7/availability?from=2030-01-01&to=2030-01-10")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag));
+    verify(availabilityCalendar, times(1)).calendar(7l, from, to);
+  }
+
+  @Test
+  void shouldReturnFreePropertiesForSearchedStay() throws Exception {
+    var from = LocalDate.of(2030, 1, 1);
+    var to = LocalDate.of(2030, 1, 10);
+    given(availabilitySearch.search(from, to, Set.of(3l, 5l)))
+        .willReturn(new AvailabilitySearchResponse(from, to, List.of(5l)));
+
+    mockMvc
+        .perform(
+            post("/properties/availability")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"from\":\"2030-01-01\",\"to\":\"2030-01-10\",\"propertyIds\":[3,5]}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.propertyIds.length()").value(1))
+        .andExpect(jsonPath("$.propertyIds[0]").value(5));
+  }
+
+  @Test
+  void shouldReturn400ForSearchWithoutDates() throws Exception {
+    mockMvc
+        .perform(
+            post("/properties/availability")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"propertyIds\":[3,5]}"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void shouldReturnNextWindowAndShortGaps() throws Exception {
+    var after = LocalDate.of(2030, 1, 1);
+    given(propertyWindows.nextWindow(7l, after, 7))
+        .willReturn(new AvailabilityWindow(LocalDate.of(2030, 1, 4), LocalDate.of(2030, 1, 10), 7));
+    given(propertyWindows.gaps(7l, after, LocalDate.of(2030, 3, 31), 3))
+        .willReturn(
+            List.of(new AvailabilityWindow(LocalDate.of(2030, 2, 2), LocalDate.of(2030, 2, 3), 2)));
+
+    mockMvc
+        .perform(get("/properties/7/windows?after=2030-01-01&nights=7"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.startDate").value("2030-01-04"))
+        .andExpect(jsonPath("$.nights").value(7));
+    mockMvc
+        .perform(get("/properties/7/gaps?from=2030-01-01&to=2030-03-31&shorterThan=3"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].endDate").value("2030-02-03"));
+  }
+}